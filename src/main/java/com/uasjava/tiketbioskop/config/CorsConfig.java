@@ -49,7 +49,9 @@ public class CorsConfig {
             "Accept",
             "Origin",
             "Access-Control-Request-Method",
-            "Access-Control-Request-Headers"
+            "Access-Control-Request-Headers",
+            "ETag",
+            "Idempotent-Replayed"
         ));
 
         // Cache preflight response untuk 1 jam
@@ -6,7 +6,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import io.micrometer.core.instrument.MeterRegistry;
 
 @Configuration
 public class EmailConfig {
@@ -34,9 +35,17 @@ public class EmailConfig {
 
     @Value("${mail.debug}")
     private String mailDebug;
-    @Bean
-    public JavaMailSender getJavaMailSender() {
-        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+
+    @Value("${app.mail.pool.max-connections:4}")
+    private int maxConnections;
+
+    @Value("${app.mail.pool.idle-timeout-ms:60000}")
+    private long idleTimeoutMillis;
+
+    @Bean(destroyMethod = "close")
+    public JavaMailSender getJavaMailSender(MeterRegistry meterRegistry) {
+        // Koneksi SMTP dipakai ulang antar pengiriman, tidak login ulang untuk setiap email
+        PooledJavaMailSender mailSender = new PooledJavaMailSender(meterRegistry, maxConnections, idleTimeoutMillis);
         mailSender.setHost(mailHost); //ini server email
         mailSender.setPort(mailPort);
         
@@ -0,0 +1,67 @@
+package com.uasjava.tiketbioskop.config;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Memindahkan poster dari kolom lama film.poster ke tabel film_poster.
+ *
+ * Penyalinan dijalankan setelah semua bean (termasuk skema Hibernate) siap tetapi sebelum web server
+ * menerima request, dan hanya menyalin film yang belum punya baris di film_poster sehingga aman diulang
+ * di setiap start. Kolom lama tidak dihapus kecuali app.poster.drop-legacy-column=true diset secara
+ * eksplisit setelah database di-backup, dan hanya jika semua poster sudah tersalin.
+ */
+@Component
+@Slf4j
+public class FilmPosterMigration implements SmartInitializingSingleton {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean dropLegacyColumn;
+
+    public FilmPosterMigration(JdbcTemplate jdbcTemplate,
+                               @Value("${app.poster.drop-legacy-column:false}") boolean dropLegacyColumn) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dropLegacyColumn = dropLegacyColumn;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        Integer kolomLama = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.columns " +
+                "WHERE table_schema = DATABASE() AND table_name = 'film' AND column_name = 'poster'",
+                Integer.class);
+        if (kolomLama == null || kolomLama == 0) {
+            return;
+        }
+
+        int disalin = jdbcTemplate.update(
+                "INSERT INTO film_poster (film_id, data, updated_at) " +
+                "SELECT f.id, f.poster, NOW() FROM film f " +
+                "WHERE f.poster IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM film_poster p WHERE p.film_id = f.id)");
+        if (disalin > 0) {
+            log.info("Migrasi poster: {} poster disalin ke tabel film_poster", disalin);
+        }
+
+        Integer tertinggal = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM film f WHERE f.poster IS NOT NULL " +
+                "AND NOT EXISTS (SELECT 1 FROM film_poster p WHERE p.film_id = f.id)",
+                Integer.class);
+        if (tertinggal != null && tertinggal > 0) {
+            log.warn("Migrasi poster belum lengkap, {} poster belum tersalin. Kolom film.poster tidak dihapus", tertinggal);
+            return;
+        }
+
+        if (!dropLegacyColumn) {
+            log.info("Semua poster sudah ada di film_poster. Kolom lama film.poster dibiarkan, hapus manual setelah " +
+                    "backup atau set app.poster.drop-legacy-column=true");
+            return;
+        }
+        jdbcTemplate.execute("ALTER TABLE film DROP COLUMN poster");
+        log.info("Kolom lama film.poster dihapus");
+    }
+}
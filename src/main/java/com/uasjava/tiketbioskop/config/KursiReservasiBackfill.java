@@ -0,0 +1,34 @@
+package com.uasjava.tiketbioskop.config;
+
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mengisi tabel kursi_reservasi dari tiket yang sudah ada saat tabel masih kosong,
+ * agar data lama ikut terlindungi unique constraint reservasi.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class KursiReservasiBackfill implements CommandLineRunner {
+
+    private final KursiReservasiRepository kursiReservasiRepository;
+
+    @Override
+    @Transactional
+    public void run(String... args) {
+        if (kursiReservasiRepository.count() > 0) {
+            return;
+        }
+        int inserted = kursiReservasiRepository.backfillFromTiket();
+        if (inserted > 0) {
+            log.info("Backfill reservasi kursi selesai, {} baris ditambahkan dari tiket", inserted);
+        }
+    }
+}
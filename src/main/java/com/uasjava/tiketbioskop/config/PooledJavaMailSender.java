@@ -0,0 +1,234 @@
+package com.uasjava.tiketbioskop.config;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.mail.MailAuthenticationException;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.AuthenticationFailedException;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * JavaMailSender yang memakai ulang koneksi SMTP yang sudah login.
+ *
+ * {@link JavaMailSenderImpl} membuka, login, dan menutup koneksi SMTP untuk setiap pemanggilan send.
+ * Class ini menyimpan koneksi yang masih hidup di pool (dibatasi jumlahnya) dan mengirim seluruh pesan
+ * dalam satu pemanggilan send melalui satu koneksi. Koneksi yang terlalu lama menganggur ditutup
+ * karena server SMTP biasanya memutus koneksi idle.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl {
+
+    private final Semaphore permits;
+    private final Deque<PooledTransport> idle = new ArrayDeque<>();
+    private final long idleTimeoutMillis;
+
+    private final Counter connectionsOpened;
+    private final Counter sent;
+    private final Counter failed;
+    private final DistributionSummary batchSize;
+    private final DistributionSummary batchThroughput;
+    private final Timer batchTimer;
+
+    public PooledJavaMailSender(MeterRegistry meterRegistry, int maxConnections, long idleTimeoutMillis) {
+        this.permits = new Semaphore(Math.max(1, maxConnections));
+        this.idleTimeoutMillis = idleTimeoutMillis;
+
+        this.connectionsOpened = Counter.builder("tiketbioskop.mail.connection.opened")
+                .description("Jumlah koneksi SMTP baru yang dibuka")
+                .register(meterRegistry);
+        this.sent = Counter.builder("tiketbioskop.mail.sent")
+                .description("Jumlah email yang berhasil dikirim")
+                .register(meterRegistry);
+        this.failed = Counter.builder("tiketbioskop.mail.failed")
+                .description("Jumlah email yang gagal dikirim")
+                .register(meterRegistry);
+        this.batchSize = DistributionSummary.builder("tiketbioskop.mail.batch.size")
+                .description("Jumlah email per batch yang dikirim melalui satu koneksi")
+                .register(meterRegistry);
+        this.batchThroughput = DistributionSummary.builder("tiketbioskop.mail.batch.throughput")
+                .description("Email terkirim per detik dalam satu batch")
+                .baseUnit("messages/s")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("tiketbioskop.mail.batch.duration")
+                .description("Lama pengiriman satu batch email")
+                .register(meterRegistry);
+        Gauge.builder("tiketbioskop.mail.connection.idle", this, PooledJavaMailSender::idleCount)
+                .description("Jumlah koneksi SMTP idle di pool")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        long start = System.nanoTime();
+        int delivered = 0;
+
+        acquirePermit();
+        PooledTransport transport = null;
+        int i = 0;
+        try {
+            for (; i < mimeMessages.length; i++) {
+                MimeMessage mimeMessage = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : mimeMessage;
+                try {
+                    if (transport == null) {
+                        transport = borrow();
+                    }
+                    sendOne(transport, mimeMessage);
+                    delivered++;
+                } catch (SendFailedException e) {
+                    // Penerima ditolak server, koneksi masih sehat dan pesan tidak perlu dikirim ulang
+                    failedMessages.put(original, e);
+                } catch (AuthenticationFailedException e) {
+                    throw e;
+                } catch (MessagingException e) {
+                    // Koneksi mungkin sudah diputus server, coba sekali lagi dengan koneksi baru
+                    discard(transport);
+                    transport = null;
+                    try {
+                        transport = borrow();
+                        sendOne(transport, mimeMessage);
+                        delivered++;
+                    } catch (SendFailedException retryException) {
+                        failedMessages.put(original, retryException);
+                    } catch (AuthenticationFailedException retryException) {
+                        throw retryException;
+                    } catch (MessagingException retryException) {
+                        discard(transport);
+                        transport = null;
+                        failedMessages.put(original, retryException);
+                    }
+                }
+            }
+        } catch (AuthenticationFailedException e) {
+            // Pesan sebelum index ini sudah terkirim, hanya sisanya yang dilaporkan gagal
+            log.error("Login SMTP ditolak, {} dari {} email batal dikirim", mimeMessages.length - i, mimeMessages.length);
+            MailAuthenticationException authException = new MailAuthenticationException(e);
+            for (int j = i; j < mimeMessages.length; j++) {
+                failedMessages.put(originalMessages != null ? originalMessages[j] : mimeMessages[j], authException);
+            }
+        } finally {
+            if (transport != null) {
+                giveBack(transport);
+            }
+            permits.release();
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        batchTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        batchSize.record(mimeMessages.length);
+        if (delivered > 0 && elapsedNanos > 0) {
+            batchThroughput.record(delivered * 1_000_000_000.0 / elapsedNanos);
+        }
+        sent.increment(delivered);
+        failed.increment(failedMessages.size());
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    private void sendOne(PooledTransport transport, MimeMessage mimeMessage) throws MessagingException {
+        if (mimeMessage.getSentDate() == null) {
+            mimeMessage.setSentDate(new java.util.Date());
+        }
+        String messageId = mimeMessage.getMessageID();
+        mimeMessage.saveChanges();
+        if (messageId != null) {
+            // Pertahankan Message-ID yang sudah diset pemanggil
+            mimeMessage.setHeader("Message-ID", messageId);
+        }
+        transport.transport.sendMessage(mimeMessage, mimeMessage.getAllRecipients());
+        transport.lastUsed = System.currentTimeMillis();
+    }
+
+    private PooledTransport borrow() throws MessagingException {
+        long now = System.currentTimeMillis();
+        while (true) {
+            PooledTransport pooled;
+            synchronized (idle) {
+                pooled = idle.pollFirst();
+            }
+            if (pooled == null) {
+                break;
+            }
+            if (now - pooled.lastUsed < idleTimeoutMillis && pooled.transport.isConnected()) {
+                return pooled;
+            }
+            discard(pooled);
+        }
+
+        Transport transport = connectTransport();
+        connectionsOpened.increment();
+        log.debug("Membuka koneksi SMTP baru ke {}:{}", getHost(), getPort());
+        return new PooledTransport(transport);
+    }
+
+    private void giveBack(PooledTransport transport) {
+        synchronized (idle) {
+            idle.addFirst(transport);
+        }
+    }
+
+    private void discard(PooledTransport transport) {
+        if (transport == null) {
+            return;
+        }
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Gagal menutup koneksi SMTP: {}", e.getMessage());
+        }
+    }
+
+    private void acquirePermit() {
+        try {
+            permits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Menunggu koneksi SMTP terputus", e);
+        }
+    }
+
+    private int idleCount() {
+        synchronized (idle) {
+            return idle.size();
+        }
+    }
+
+    /**
+     * Tutup semua koneksi idle, dipanggil saat aplikasi berhenti
+     */
+    public void close() {
+        synchronized (idle) {
+            idle.forEach(this::discard);
+            idle.clear();
+        }
+    }
+
+    private static final class PooledTransport {
+        private final Transport transport;
+        private long lastUsed = System.currentTimeMillis();
+
+        private PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.uasjava.tiketbioskop.config;
 
+import jakarta.servlet.DispatcherType;
+
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -35,10 +37,14 @@ public class SecurityConfig {
                 )
                 .authorizeHttpRequests(auth ->
                     auth
+                        // Dispatch async stream SSE sudah diotorisasi pada request awal
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+
                         // Public endpoints - tidak memerlukan autentikasi
                         .requestMatchers("/login", "/users/register", "/email/send").permitAll()
                         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
                         .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
 
                         // Static file serving untuk React
                         .requestMatchers("/uploads/**", "/static/**").permitAll()
@@ -55,10 +61,14 @@ public class SecurityConfig {
                         // Endpoint kursi untuk user
                         .requestMatchers("/all/kursi/available/**").hasAnyRole("USER", "ADMIN")
 
+                        // Handshake WebSocket/STOMP, topic hanya berisi status kursi publik tanpa data user
+                        .requestMatchers("/ws/**").permitAll()
+
                         // Endpoint transaksi user
                         .requestMatchers("/api/transaksi/checkout", "/api/transaksi/konfirmasi",
                                        "/api/transaksi/cancel/{transaksiId}", "/api/transaksi/my-transactions",
-                                       "/api/transaksi/filter", "/api/transaksi/search").hasRole("USER")
+                                       "/api/transaksi/filter", "/api/transaksi/search",
+                                       "/api/transaksi/{transaksiId}/events").hasRole("USER")
 
                         // Endpoint tiket user (download tiket sendiri)
                         .requestMatchers("/api/laporan/tiket/pdf/{transaksiId}", "/api/laporan/tiket/download/{transaksiId}").hasRole("USER")
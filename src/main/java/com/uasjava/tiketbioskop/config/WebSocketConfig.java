@@ -0,0 +1,30 @@
+package com.uasjava.tiketbioskop.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+
+/**
+ * Konfigurasi WebSocket/STOMP untuk push perubahan status kursi ke frontend.
+ * Klien berlangganan ke /topic/jadwal/{jadwalId}/kursi.
+ */
+@Configuration
+@EnableWebSocketMessageBroker
+public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+
+    @Override
+    public void registerStompEndpoints(StompEndpointRegistry registry) {
+        // Origin mengikuti konfigurasi CORS untuk development React
+        registry.addEndpoint("/ws")
+                .setAllowedOriginPatterns("http://localhost:*", "https://localhost:*",
+                        "http://127.0.0.1:*", "https://127.0.0.1:*");
+    }
+
+    @Override
+    public void configureMessageBroker(MessageBrokerRegistry registry) {
+        registry.enableSimpleBroker("/topic");
+        registry.setApplicationDestinationPrefixes("/app");
+    }
+}
@@ -1,28 +1,37 @@
 package com.uasjava.tiketbioskop.controller;
 
 
-import org.springframework.beans.factory.annotation.Autowired;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.server.ResponseStatusException;
 
+import com.uasjava.tiketbioskop.dto.BroadcastJobDTO;
+import com.uasjava.tiketbioskop.dto.BroadcastRequestDTO;
 import com.uasjava.tiketbioskop.dto.EmailDto;
 import com.uasjava.tiketbioskop.dto.GenericResponse;
+import com.uasjava.tiketbioskop.service.BroadcastEmailService;
 import com.uasjava.tiketbioskop.service.EmailService;
+import com.uasjava.tiketbioskop.util.AuthorizationUtil;
+
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
 
 @RestController
 @RequestMapping("/admin/email")
+@RequiredArgsConstructor
 public class EmailController {
 
-    @Autowired
-    private EmailService emailService;
-
-    public EmailController(EmailService emailService) {
-        this.emailService = emailService;
-    }
+    private final EmailService emailService;
+    private final BroadcastEmailService broadcastEmailService;
     
     @PostMapping("/send")
     public ResponseEntity<Object> sendEmail(@RequestBody EmailDto dto){
@@ -52,4 +61,58 @@ public class EmailController {
         }
     }
 
+    /**
+     * Buat job broadcast email ke semua user aktif, job berjalan di background
+     */
+    @PostMapping("/broadcast")
+    public ResponseEntity<GenericResponse<BroadcastJobDTO>> broadcast(@Valid @RequestBody BroadcastRequestDTO request) {
+        BroadcastJobDTO job = broadcastEmailService.buatJob(request, AuthorizationUtil.getCurrentUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(GenericResponse.<BroadcastJobDTO>builder()
+                .success(true)
+                .message("Job broadcast email dibuat")
+                .data(job)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @GetMapping("/broadcast")
+    public ResponseEntity<GenericResponse<List<BroadcastJobDTO>>> getBroadcastJobs() {
+        return ResponseEntity.ok(GenericResponse.<List<BroadcastJobDTO>>builder()
+                .success(true)
+                .message("Daftar job broadcast email")
+                .data(broadcastEmailService.getJobs())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @GetMapping("/broadcast/{jobId}")
+    public ResponseEntity<GenericResponse<BroadcastJobDTO>> getBroadcastJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(GenericResponse.<BroadcastJobDTO>builder()
+                .success(true)
+                .message("Progres job broadcast email")
+                .data(broadcastEmailService.getJob(jobId))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @PostMapping("/broadcast/{jobId}/cancel")
+    public ResponseEntity<GenericResponse<BroadcastJobDTO>> cancelBroadcastJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(GenericResponse.<BroadcastJobDTO>builder()
+                .success(true)
+                .message("Job broadcast email dibatalkan")
+                .data(broadcastEmailService.batalkanJob(jobId))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @PostMapping("/broadcast/{jobId}/resume")
+    public ResponseEntity<GenericResponse<BroadcastJobDTO>> resumeBroadcastJob(@PathVariable Long jobId) {
+        return ResponseEntity.ok(GenericResponse.<BroadcastJobDTO>builder()
+                .success(true)
+                .message("Job broadcast email dilanjutkan")
+                .data(broadcastEmailService.lanjutkanJob(jobId))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
 }
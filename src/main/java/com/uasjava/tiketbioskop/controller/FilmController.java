@@ -5,11 +5,13 @@ import com.uasjava.tiketbioskop.dto.GenericResponse;
 import com.uasjava.tiketbioskop.model.Film;
 import com.uasjava.tiketbioskop.model.Film.StatusFilm;
 import com.uasjava.tiketbioskop.service.FilmService;
-import com.uasjava.tiketbioskop.util.ImageUtils;
+import com.uasjava.tiketbioskop.service.PosterStorageService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.data.domain.Page;
@@ -19,21 +21,33 @@ import java.time.LocalDateTime;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.HttpHeaders;
-import com.uasjava.tiketbioskop.repository.FilmRepository;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
 import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 // @RequestMapping("/api/film")
 // @Tag(name = "Film Controller", description = "Upload Film dengan Gambar")
 public class FilmController {
 
+    // File lebih kecil dari ini lebih murah dikirim langsung daripada lewat sendfile
+    private static final long SENDFILE_MIN_SIZE = 48 * 1024;
+
     @Autowired
-    private FilmRepository filmRepository;
+    private PosterStorageService posterStorageService;
     @Autowired
     private FilmService filmService;
 
@@ -53,19 +67,106 @@ public class FilmController {
         return ResponseEntity.ok(filmService.getFilmById(id));
     }
 
-     @GetMapping("/all/film/{id}/poster")
-     @Operation(summary = "Mengambil poster sesuai id dari data film")
-    public ResponseEntity<byte[]> getPoster(@PathVariable Long id) {
-        Optional<Film> filmOpt = filmRepository.findById(id);
-        if (filmOpt.isEmpty() || filmOpt.get().getPoster() == null) {
-            return ResponseEntity.notFound().build();
+    @GetMapping("/all/film/{id}/poster")
+    @Operation(summary = "Mengambil poster sesuai id dari data film")
+    public void getPoster(@PathVariable Long id,
+                          @RequestParam(value = "v", required = false) String versi,
+                          @RequestParam(value = "size", required = false) String size,
+                          WebRequest webRequest,
+                          HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        PosterStorageService.UkuranPoster ukuran = PosterStorageService.UkuranPoster.fromParam(size);
+        Optional<PosterStorageService.StoredPoster> found = posterStorageService.find(id, ukuran);
+        if (found.isEmpty()) {
+            response.setStatus(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        PosterStorageService.StoredPoster poster = found.get();
+
+        // URL dengan hash poster terbaru tidak pernah berubah isinya, boleh di-cache selamanya oleh browser.
+        // Selama versi ukuran yang diminta belum jadi, atau ?v= bukan hash yang sedang dilayani (misalnya poster
+        // baru saja diganti di instance lain), file dikirim tanpa cache panjang
+        boolean immutable = poster.hash().equals(versi) && poster.ukuran() == ukuran;
+        response.setHeader(HttpHeaders.CACHE_CONTROL, immutable
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable().getHeaderValue()
+                : CacheControl.noCache().getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        String etag = "\"" + poster.tag() + "\"";
+        if (webRequest.checkNotModified(etag, poster.lastModified())) {
+            return;
+        }
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, poster.lastModified());
+
+        long length = poster.size();
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range != null && ifRangeMatches(request, etag, poster.lastModified())) {
+            try {
+                List<HttpRange> ranges = HttpRange.parseRanges(range);
+                // Lebih dari satu range dijawab dengan file utuh
+                if (ranges.size() == 1) {
+                    start = ranges.get(0).getRangeStart(length);
+                    end = ranges.get(0).getRangeEnd(length);
+                    response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+                }
+            } catch (IllegalArgumentException e) {
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                return;
+            }
+        }
+
+        response.setContentType(poster.contentType());
+        response.setContentLengthLong(end - start + 1);
+        transferFile(poster.file(), start, end - start + 1, request, response);
+    }
+
+    private boolean ifRangeMatches(HttpServletRequest request, String etag, long lastModified) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(etag);
         }
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 == lastModified / 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
 
-        byte[] image = ImageUtils.decompressImage(filmOpt.get().getPoster());
+    /**
+     * Kirim isi file tanpa menyalin ke heap. Jika connector Tomcat mendukung sendfile, pengiriman
+     * diserahkan ke Tomcat setelah handler selesai, selain itu memakai FileChannel.transferTo.
+     */
+    private void transferFile(Path file, long start, long count, HttpServletRequest request,
+                              HttpServletResponse response) throws IOException {
+        if (count >= SENDFILE_MIN_SIZE && "GET".equals(request.getMethod())
+                && Boolean.TRUE.equals(request.getAttribute("org.apache.tomcat.sendfile.support"))) {
+            request.setAttribute("org.apache.tomcat.sendfile.filename", file.toAbsolutePath().toString());
+            request.setAttribute("org.apache.tomcat.sendfile.start", start);
+            request.setAttribute("org.apache.tomcat.sendfile.end", start + count);
+            return;
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.IMAGE_JPEG); // atau IMAGE_PNG, tergantung file asli
-        return new ResponseEntity<>(image, headers, HttpStatus.OK);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
     }
 
     @PostMapping(value = "/admin/film", consumes = "multipart/form-data")
@@ -1,6 +1,7 @@
 package com.uasjava.tiketbioskop.controller;
 import com.uasjava.tiketbioskop.dto.*;
 import com.uasjava.tiketbioskop.service.*;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
 import com.uasjava.tiketbioskop.util.WebResponse;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -9,9 +10,14 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 // @RequestMapping("/api/kursi")
@@ -19,6 +25,7 @@ import org.springframework.web.bind.annotation.*;
 @Slf4j
 public class KursiController {
     private final KursiService kursiService;
+    private final SseBroadcaster sseBroadcaster;
 
     @PostMapping("/admin/kursi")
     @Operation(summary = "Menambah kursi baru")
@@ -72,6 +79,36 @@ public class KursiController {
         }
     }
 
+    @GetMapping("/all/kursi/available/{jadwalId}")
+    @Operation(summary = "Menampilkan peta kursi jadwal beserta status tersedia, ditahan, atau terjual")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public ResponseEntity<WebResponse<SeatMapDTO>> getSeatMap(@PathVariable Long jadwalId, WebRequest webRequest) {
+        SeatMapDTO seatMap = kursiService.getSeatMap(jadwalId);
+
+        // Versi peta kursi dipakai sebagai ETag, klien polling mendapat 304 selama tidak ada perubahan
+        String etag = "\"" + seatMap.getVersion() + "\"";
+        if (webRequest.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new WebResponse<>(200, "Berhasil ambil data", seatMap));
+    }
+
+    @GetMapping(value = "/all/kursi/available/{jadwalId}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream SSE perubahan status kursi jadwal, untuk klien tanpa WebSocket")
+    @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
+    public SseEmitter streamSeatMap(@PathVariable Long jadwalId) {
+        log.info("Klien berlangganan stream kursi jadwal ID: {}", jadwalId);
+
+        // Snapshot lengkap dikirim sebagai event pertama, setelahnya hanya event "kursi" berisi perubahan.
+        // Snapshot diambil setelah koneksi terdaftar agar perubahan di antaranya tidak terlewat.
+        return sseBroadcaster.subscribe(SseBroadcaster.jadwalChannel(jadwalId), "snapshot",
+                () -> kursiService.getSeatMap(jadwalId));
+    }
+
     @PutMapping("/admin/kursi/{id}")
     @Operation(summary = "Mengubah kursi berdasarkan id")
     @PreAuthorize("hasRole('ADMIN')")
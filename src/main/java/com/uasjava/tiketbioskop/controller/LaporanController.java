@@ -10,6 +10,7 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
@@ -18,6 +19,7 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @RestController
@@ -79,6 +81,35 @@ public class LaporanController {
         }
     }
 
+    @GetMapping("/pdf/transaksi/stream")
+    @Operation(summary = "Streaming laporan PDF transaksi dengan filter rentang tanggal")
+    public void streamTransaksiPdfReport(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dari,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate sampai,
+            HttpServletResponse response) {
+        if (dari != null && sampai != null && sampai.isBefore(dari)) {
+            response.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return;
+        }
+        try {
+            log.info("Streaming laporan PDF transaksi dari {} sampai {}", dari, sampai);
+
+            response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"laporan-transaksi-" +
+                LocalDate.now().format(java.time.format.DateTimeFormatter.ofPattern("yyyy-MM-dd")) + ".pdf\"");
+            transaksiPdfService.streamLaporanPdf(dari, sampai, response.getOutputStream());
+            response.flushBuffer();
+
+        } catch (Exception e) {
+            // Jika response sudah terkirim sebagian status tidak bisa diubah lagi, klien menerima PDF terpotong
+            log.error("Error saat streaming laporan PDF transaksi: {}", e.getMessage(), e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
+
     @GetMapping("/tiket/pdf/{transaksiId}")
     @Operation(summary = "Generate tiket PDF untuk transaksi tertentu")
     public ResponseEntity<byte[]> generateTiketPdf(@PathVariable Long transaksiId) {
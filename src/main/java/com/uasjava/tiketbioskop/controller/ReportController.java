@@ -13,9 +13,11 @@ import com.uasjava.tiketbioskop.service.ReportService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 
 @RestController
 @RequestMapping("/admin/report")
+@Slf4j
 public class ReportController {
 
     @Autowired
@@ -50,4 +52,21 @@ public class ReportController {
                                         .build());
         }
     }
+
+    @GetMapping("/generate-excel/stream")
+    @Operation(summary = "Export data user ke Excel secara streaming")
+    public void streamExcel(HttpServletResponse response) {
+        try {
+            response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+            response.setHeader("Content-Disposition", "attachment; filename=data_user.xlsx");
+            reportService.streamExcel(response.getOutputStream());
+            response.flushBuffer();
+        } catch (Exception e) {
+            log.error("Error saat export Excel user: {}", e.getMessage(), e);
+            if (!response.isCommitted()) {
+                response.reset();
+                response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
+        }
+    }
 }
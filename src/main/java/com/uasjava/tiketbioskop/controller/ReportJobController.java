@@ -0,0 +1,100 @@
+package com.uasjava.tiketbioskop.controller;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.uasjava.tiketbioskop.dto.GenericResponse;
+import com.uasjava.tiketbioskop.dto.ReportJobDTO;
+import com.uasjava.tiketbioskop.dto.ReportJobRequestDTO;
+import com.uasjava.tiketbioskop.service.ReportJobService;
+import com.uasjava.tiketbioskop.util.AuthorizationUtil;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+@RestController
+@RequestMapping("/api/laporan/jobs")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Report Job Controller", description = "Generate laporan di background lalu unduh hasilnya")
+public class ReportJobController {
+
+    private final ReportJobService reportJobService;
+
+    @PostMapping
+    @Operation(summary = "Buat job laporan, permintaan identik yang masih berjalan memakai job yang sama")
+    public ResponseEntity<GenericResponse<ReportJobDTO>> submit(@Valid @RequestBody ReportJobRequestDTO request) {
+        ReportJobDTO job = reportJobService.submit(request, AuthorizationUtil.getCurrentUsername());
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(GenericResponse.<ReportJobDTO>builder()
+                .success(true)
+                .message("Job laporan dibuat")
+                .data(job)
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @GetMapping
+    @Operation(summary = "Daftar job laporan")
+    public ResponseEntity<GenericResponse<List<ReportJobDTO>>> getJobs() {
+        return ResponseEntity.ok(GenericResponse.<List<ReportJobDTO>>builder()
+                .success(true)
+                .message("Daftar job laporan")
+                .data(reportJobService.getJobs())
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Status dan progres job laporan")
+    public ResponseEntity<GenericResponse<ReportJobDTO>> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(GenericResponse.<ReportJobDTO>builder()
+                .success(true)
+                .message("Progres job laporan")
+                .data(reportJobService.getJob(jobId))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+
+    @GetMapping("/{jobId}/download")
+    @Operation(summary = "Unduh hasil job laporan yang sudah selesai")
+    public ResponseEntity<Resource> download(@PathVariable String jobId) {
+        ReportJobService.ReportResult result = reportJobService.getResult(jobId);
+        log.info("Download hasil job laporan {}", jobId);
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(result.contentType()));
+        headers.setContentDisposition(ContentDisposition.attachment().filename(result.filename()).build());
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(new FileSystemResource(result.file()));
+    }
+
+    @DeleteMapping("/{jobId}")
+    @Operation(summary = "Batalkan job laporan yang masih antre atau berjalan")
+    public ResponseEntity<GenericResponse<ReportJobDTO>> cancel(@PathVariable String jobId) {
+        return ResponseEntity.ok(GenericResponse.<ReportJobDTO>builder()
+                .success(true)
+                .message("Job laporan dibatalkan")
+                .data(reportJobService.cancel(jobId))
+                .timestamp(LocalDateTime.now())
+                .build());
+    }
+}
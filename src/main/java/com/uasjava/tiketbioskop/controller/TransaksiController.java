@@ -5,7 +5,12 @@ import com.uasjava.tiketbioskop.dto.CheckoutResponseDTO;
 import com.uasjava.tiketbioskop.dto.GenericResponse;
 import com.uasjava.tiketbioskop.dto.KonfirmasiPembayaranDTO;
 import com.uasjava.tiketbioskop.dto.TransaksiDTO;
+import com.uasjava.tiketbioskop.exception.ServiceBusyException;
 import com.uasjava.tiketbioskop.service.TransaksiService;
+import com.uasjava.tiketbioskop.service.helper.IdempotencyService;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
+
+import com.fasterxml.jackson.core.type.TypeReference;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -14,10 +19,13 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDateTime;
 
@@ -29,11 +37,21 @@ import java.time.LocalDateTime;
 public class TransaksiController {
 
     private final TransaksiService transaksiService;
+    private final SseBroadcaster sseBroadcaster;
+    private final IdempotencyService idempotencyService;
 
     @PostMapping("/checkout")
     @Operation(summary = "Melakukan checkout tiket")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<GenericResponse<CheckoutResponseDTO>> checkout(@Valid @RequestBody CheckoutRequestDTO dto) {
+    public ResponseEntity<GenericResponse<CheckoutResponseDTO>> checkout(
+            @Valid @RequestBody CheckoutRequestDTO dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        // Retry dengan Idempotency-Key yang sama mendapat response checkout pertama, tanpa membuat transaksi baru
+        return idempotencyService.execute(idempotencyKey, "checkout", dto,
+                new TypeReference<GenericResponse<CheckoutResponseDTO>>() {}, () -> doCheckout(dto));
+    }
+
+    private ResponseEntity<GenericResponse<CheckoutResponseDTO>> doCheckout(CheckoutRequestDTO dto) {
         try {
             log.info("User melakukan checkout untuk jadwal ID: {}", dto.getJadwalId());
 
@@ -48,6 +66,20 @@ public class TransaksiController {
 
             return ResponseEntity.status(HttpStatus.CREATED).body(genericResponse);
 
+        } catch (ServiceBusyException e) {
+            // Gagal sementara, tidak disimpan sebagai response idempotent sehingga retry dengan key yang sama diproses ulang
+            log.warn("Checkout ditunda: {}", e.getMessage());
+
+            GenericResponse<CheckoutResponseDTO> errorResponse = GenericResponse.<CheckoutResponseDTO>builder()
+                    .success(false)
+                    .message(e.getMessage())
+                    .timestamp(LocalDateTime.now())
+                    .build();
+
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(errorResponse);
+
         } catch (IllegalArgumentException | IllegalStateException e) {
             log.warn("Checkout gagal: {}", e.getMessage());
 
@@ -75,7 +107,14 @@ public class TransaksiController {
     @PostMapping("/konfirmasi")
     @Operation(summary = "Konfirmasi pembayaran transaksi")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<GenericResponse<String>> konfirmasiPembayaran(@Valid @RequestBody KonfirmasiPembayaranDTO dto) {
+    public ResponseEntity<GenericResponse<String>> konfirmasiPembayaran(
+            @Valid @RequestBody KonfirmasiPembayaranDTO dto,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute(idempotencyKey, "konfirmasi", dto,
+                new TypeReference<GenericResponse<String>>() {}, () -> doKonfirmasiPembayaran(dto));
+    }
+
+    private ResponseEntity<GenericResponse<String>> doKonfirmasiPembayaran(KonfirmasiPembayaranDTO dto) {
         try {
             log.info("User mengkonfirmasi pembayaran dengan kode: {}", dto.getKodePembayaran());
 
@@ -224,4 +263,15 @@ public class TransaksiController {
             throw new RuntimeException("Gagal mencari transaksi");
         }
     }
+
+    @GetMapping(value = "/{transaksiId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Stream SSE perubahan status transaksi (PENDING ke LUNAS/DIBATALKAN)")
+    @PreAuthorize("hasRole('USER')")
+    public SseEmitter streamStatus(@PathVariable Long transaksiId) {
+        log.info("User berlangganan status transaksi ID: {}", transaksiId);
+
+        // Status saat ini dikirim sebagai event pertama agar klien tidak perlu polling awal
+        return sseBroadcaster.subscribe(SseBroadcaster.transaksiChannel(transaksiId), "status",
+                () -> transaksiService.getMyTransactionStatus(transaksiId));
+    }
 }
@@ -0,0 +1,55 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.time.LocalDateTime;
+
+import com.uasjava.tiketbioskop.model.BroadcastJob;
+import com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status dan progres job broadcast email
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastJobDTO {
+    private Long id;
+    private String subject;
+    private StatusBroadcast status;
+    private long totalRecipients;
+    private long sentCount;
+    private long failedCount;
+    private double progress;
+    private int lastUserId;
+    private String lastError;
+    private String createdBy;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static BroadcastJobDTO from(BroadcastJob job) {
+        long processed = job.getSentCount() + job.getFailedCount();
+        double progress = job.getStatus() == StatusBroadcast.COMPLETED ? 100.0
+                : job.getTotalRecipients() > 0 ? Math.min(100.0, processed * 100.0 / job.getTotalRecipients()) : 0.0;
+        return BroadcastJobDTO.builder()
+                .id(job.getId())
+                .subject(job.getSubject())
+                .status(job.getStatus())
+                .totalRecipients(job.getTotalRecipients())
+                .sentCount(job.getSentCount())
+                .failedCount(job.getFailedCount())
+                .progress(Math.round(progress * 10) / 10.0)
+                .lastUserId(job.getLastUserId())
+                .lastError(job.getLastError())
+                .createdBy(job.getCreatedBy())
+                .createdAt(job.getCreatedAt())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.uasjava.tiketbioskop.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Permintaan broadcast email ke semua user aktif.
+ * Teks {{nama}} di dalam isi diganti dengan username penerima.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastRequestDTO {
+
+    @NotBlank(message = "Subject tidak boleh kosong")
+    @Size(max = 255, message = "Subject maksimal 255 karakter")
+    private String subject;
+
+    @NotBlank(message = "Judul tidak boleh kosong")
+    @Size(max = 255, message = "Judul maksimal 255 karakter")
+    private String judul;
+
+    @NotBlank(message = "Isi email tidak boleh kosong")
+    private String isi;
+}
@@ -1,13 +1,17 @@
 package com.uasjava.tiketbioskop.dto;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 import java.util.List;
 
 @Data
 @Builder
+@NoArgsConstructor
+@AllArgsConstructor
 public class CheckoutResponseDTO {
     private Long transaksiId;
     private String kodePembayaran;
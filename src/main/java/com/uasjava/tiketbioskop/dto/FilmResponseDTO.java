@@ -11,7 +11,8 @@ public class FilmResponseDTO {
     private int durasi;
     private String sinopsis;
     private String cast;
-    private byte[] poster; // decompressed
+    private String posterUrl; // /all/film/{id}/poster?v={hash}, null jika film tidak punya poster
+    private String posterThumbUrl; // versi kecil poster untuk halaman daftar film
     private String trailerUrl;
     private StatusFilm status;
 }
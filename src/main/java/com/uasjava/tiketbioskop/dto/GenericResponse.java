@@ -3,12 +3,14 @@ package com.uasjava.tiketbioskop.dto;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
 
 @Data
 @Builder
 @AllArgsConstructor
+@NoArgsConstructor
 public class GenericResponse<T> {
     private boolean success;
     private String message;
@@ -0,0 +1,58 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Status dan progres job laporan
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDTO {
+    private String id;
+    private JenisLaporan jenis;
+    private LocalDate dari;
+    private LocalDate sampai;
+    private StatusJob status;
+    private long processedRows;
+    private long totalRows;
+    private double progress;
+    private String error;
+    private String downloadUrl;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private LocalDateTime expiresAt;
+
+    public enum JenisLaporan {
+        TRANSAKSI_PDF("pdf", "application/pdf"),
+        USER_EXCEL("xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+        private final String extension;
+        private final String contentType;
+
+        JenisLaporan(String extension, String contentType) {
+            this.extension = extension;
+            this.contentType = contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+    }
+
+    public enum StatusJob {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+}
@@ -0,0 +1,28 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.time.LocalDate;
+
+import com.uasjava.tiketbioskop.dto.ReportJobDTO.JenisLaporan;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Permintaan job laporan. Rentang tanggal hanya dipakai laporan transaksi.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobRequestDTO {
+
+    @NotNull(message = "Jenis laporan tidak boleh kosong")
+    private JenisLaporan jenis;
+
+    private LocalDate dari;
+
+    private LocalDate sampai;
+}
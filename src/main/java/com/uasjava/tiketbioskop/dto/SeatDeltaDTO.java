@@ -0,0 +1,20 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.util.List;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Perubahan status kursi satu jadwal yang dikirim ke klien dalam satu frame.
+ * Version sama dengan version pada {@link SeatMapDTO} sehingga klien bisa mencocokkan dengan snapshot REST.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SeatDeltaDTO {
+    private Long jadwalId;
+    private String version;
+    private List<SeatMapDTO.KursiStatus> kursi;
+}
@@ -0,0 +1,37 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.util.List;
+
+import com.uasjava.tiketbioskop.model.Kursi.TipeKursi;
+import com.uasjava.tiketbioskop.service.inventory.SeatState;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Peta kursi satu jadwal beserta status tiap kursi
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeatMapDTO {
+    private Long jadwalId;
+    private Long bioskopId;
+    private String version;
+    private int totalKursi;
+    private int tersedia;
+    private List<KursiStatus> kursi;
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class KursiStatus {
+        private Long id;
+        private String nomor;
+        private TipeKursi tipe;
+        private SeatState status;
+    }
+}
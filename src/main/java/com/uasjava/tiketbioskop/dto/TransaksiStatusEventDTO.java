@@ -0,0 +1,25 @@
+package com.uasjava.tiketbioskop.dto;
+
+import java.time.LocalDateTime;
+
+import com.uasjava.tiketbioskop.model.Transaksi.StatusTransaksi;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Event perubahan status transaksi untuk stream SSE halaman pembayaran
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TransaksiStatusEventDTO {
+    private Long transaksiId;
+    private String kodePembayaran;
+    private StatusTransaksi status;
+    private LocalDateTime expiredAt;
+    private LocalDateTime timestamp;
+}
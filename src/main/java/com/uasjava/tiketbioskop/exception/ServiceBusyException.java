@@ -0,0 +1,15 @@
+package com.uasjava.tiketbioskop.exception;
+
+/**
+ * Request tidak bisa diproses sekarang karena sumber daya sedang dipakai request lain (misalnya lock jadwal).
+ * Dijawab 503 dan tidak pernah disimpan sebagai response idempotent, sehingga klien boleh mencoba lagi.
+ */
+public class ServiceBusyException extends RuntimeException {
+    public ServiceBusyException(String message) {
+        super(message);
+    }
+
+    public ServiceBusyException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
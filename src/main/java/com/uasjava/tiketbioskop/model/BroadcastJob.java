@@ -0,0 +1,88 @@
+package com.uasjava.tiketbioskop.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Job email broadcast dari admin ke semua user aktif.
+ *
+ * {@code lastUserId} adalah kursor keyset: semua user dengan id sampai nilai ini sudah diproses,
+ * sehingga job bisa dilanjutkan dari halaman berikutnya setelah aplikasi restart atau dibatalkan.
+ */
+@Entity
+@Table(name = "broadcast_job")
+@AllArgsConstructor
+@Data
+@Builder
+@NoArgsConstructor
+public class BroadcastJob {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false)
+    private String judul;
+
+    @Lob
+    @Column(columnDefinition = "TEXT", nullable = false)
+    private String isi;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private StatusBroadcast status = StatusBroadcast.QUEUED;
+
+    @Column(name = "last_user_id", nullable = false)
+    @Builder.Default
+    private int lastUserId = 0;
+
+    @Column(name = "total_recipients")
+    @Builder.Default
+    private long totalRecipients = 0;
+
+    @Column(name = "sent_count", nullable = false)
+    @Builder.Default
+    private long sentCount = 0;
+
+    @Column(name = "failed_count", nullable = false)
+    @Builder.Default
+    private long failedCount = 0;
+
+    @Column(name = "created_by", length = 100)
+    private String createdBy;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    public enum StatusBroadcast {
+        QUEUED, RUNNING, COMPLETED, CANCELLED, FAILED
+    }
+}
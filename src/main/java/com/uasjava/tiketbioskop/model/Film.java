@@ -48,9 +48,10 @@ public class Film {
     @Size(min = 3, message = "Cast minimal 3 karakter")
     private String cast;
 
-    @Column(nullable = true, columnDefinition = "LONGBLOB")
-    @Lob
-    private byte[] poster;
+    // Hash isi poster, dipakai sebagai versi di URL poster agar bisa di-cache browser.
+    // Data gambarnya sendiri disimpan di FilmPoster
+    @Column(name = "poster_hash", length = 64)
+    private String posterHash;
 
     @Column(nullable = true, length = 500)
     @Pattern(regexp = "^(https?://.*)?$", message = "URL trailer tidak valid")
@@ -0,0 +1,38 @@
+package com.uasjava.tiketbioskop.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Data gambar poster film, dipisah dari tabel film agar query film, jadwal dan transaksi
+ * tidak ikut memuat byte gambar. Baris ini hanya dibaca saat poster diminta.
+ */
+@Entity
+@Table(name = "film_poster")
+@AllArgsConstructor
+@Data
+@Builder
+@NoArgsConstructor
+public class FilmPoster {
+    @Id
+    @Column(name = "film_id")
+    private Long filmId;
+
+    @Column(nullable = false, columnDefinition = "LONGBLOB")
+    @Lob
+    private byte[] data; // hasil ImageUtils.compressImage
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = LocalDateTime.now();
+    }
+}
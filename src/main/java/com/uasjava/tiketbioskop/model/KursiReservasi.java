@@ -0,0 +1,68 @@
+package com.uasjava.tiketbioskop.model;
+
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.CreationTimestamp;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.ManyToOne;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Reservasi satu kursi pada satu jadwal.
+ *
+ * Unique constraint (jadwal_id, kursi_id) menjamin di level database bahwa satu kursi
+ * tidak bisa dijual dua kali untuk jadwal yang sama. Baris dihapus saat transaksi dibatalkan
+ * atau kadaluarsa, dan berubah menjadi TERJUAL saat transaksi lunas.
+ */
+@Entity
+@Table(name = "kursi_reservasi",
+       uniqueConstraints = @UniqueConstraint(name = "uk_reservasi_jadwal_kursi", columnNames = { "jadwal_id", "kursi_id" }),
+       indexes = @Index(name = "idx_reservasi_transaksi", columnList = "transaksi_id"))
+@AllArgsConstructor
+@Data
+@Builder
+@NoArgsConstructor
+public class KursiReservasi {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "jadwal_id", nullable = false)
+    private Jadwal jadwal;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "kursi_id", nullable = false)
+    private Kursi kursi;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "transaksi_id", nullable = false)
+    private Transaksi transaksi;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private StatusReservasi status;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    public enum StatusReservasi {
+        DITAHAN, TERJUAL
+    }
+}
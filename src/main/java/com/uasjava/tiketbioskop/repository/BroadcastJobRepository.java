@@ -0,0 +1,53 @@
+package com.uasjava.tiketbioskop.repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.uasjava.tiketbioskop.model.BroadcastJob;
+import com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast;
+
+public interface BroadcastJobRepository extends JpaRepository<BroadcastJob, Long> {
+
+    List<BroadcastJob> findByStatusInOrderByIdAsc(Collection<StatusBroadcast> statuses);
+
+    List<BroadcastJob> findTop50ByOrderByIdDesc();
+
+    @Query("SELECT b.status FROM BroadcastJob b WHERE b.id = :id")
+    StatusBroadcast findStatusById(@Param("id") Long id);
+
+    // Mulai (atau lanjutkan) job, hanya berhasil jika job belum dibatalkan
+    @Transactional
+    @Modifying
+    @Query("UPDATE BroadcastJob b SET b.status = com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast.RUNNING, " +
+            "b.startedAt = COALESCE(b.startedAt, :now), b.totalRecipients = :total " +
+            "WHERE b.id = :id AND b.status IN (com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast.QUEUED, " +
+            "com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast.RUNNING)")
+    int start(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("total") long total);
+
+    // Simpan kursor dan penghitung setelah sekelompok penerima selesai dikirim
+    @Transactional
+    @Modifying
+    @Query("UPDATE BroadcastJob b SET b.lastUserId = :lastUserId, " +
+            "b.sentCount = b.sentCount + :sent, b.failedCount = b.failedCount + :failed WHERE b.id = :id")
+    int saveProgress(@Param("id") Long id,
+                     @Param("lastUserId") int lastUserId,
+                     @Param("sent") long sent,
+                     @Param("failed") long failed);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE BroadcastJob b SET b.status = :status, b.finishedAt = :finishedAt, b.lastError = :lastError " +
+            "WHERE b.id = :id AND b.status IN :expected")
+    int updateStatus(@Param("id") Long id,
+                     @Param("expected") Collection<StatusBroadcast> expected,
+                     @Param("status") StatusBroadcast status,
+                     @Param("finishedAt") LocalDateTime finishedAt,
+                     @Param("lastError") String lastError);
+}
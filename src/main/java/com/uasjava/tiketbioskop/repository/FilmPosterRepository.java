@@ -0,0 +1,19 @@
+package com.uasjava.tiketbioskop.repository;
+
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.uasjava.tiketbioskop.model.FilmPoster;
+
+public interface FilmPosterRepository extends JpaRepository<FilmPoster, Long> {
+
+    @Query("SELECT p.data FROM FilmPoster p WHERE p.filmId = :filmId")
+    byte[] findDataByFilmId(@Param("filmId") Long filmId);
+
+    // Film yang punya poster tapi belum punya hash
+    @Query("SELECT p.filmId FROM FilmPoster p, Film f WHERE f.id = p.filmId AND f.posterHash IS NULL")
+    List<Long> findFilmIdsWithoutPosterHash();
+}
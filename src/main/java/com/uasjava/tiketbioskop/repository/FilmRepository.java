@@ -6,8 +6,10 @@ import java.util.List;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -21,4 +23,63 @@ public interface FilmRepository extends JpaRepository<Film, Long>, JpaSpecificat
     // Cari film berdasarkan judul dan genre (exact match)
     @Query("SELECT f FROM Film f WHERE f.judul = :judul AND f.genre = :genre")
     Film findByJudulAndGenre(@Param("judul") String judul, @Param("genre") String genre);
+
+    // Query daftar film tanpa kolom poster, poster diambil terpisah lewat URL
+    String FILM_LIST_SELECT = "SELECT f.id AS id, f.judul AS judul, f.genre AS genre, f.durasi AS durasi, " +
+            "f.sinopsis AS sinopsis, f.cast AS cast, f.trailerUrl AS trailerUrl, f.status AS status, " +
+            "f.posterHash AS posterHash FROM Film f";
+
+    @Query(value = FILM_LIST_SELECT, countQuery = "SELECT COUNT(f) FROM Film f")
+    Page<FilmListItem> findListBy(Pageable pageable);
+
+    @Query(FILM_LIST_SELECT + " ORDER BY f.id")
+    List<FilmListItem> findAllListItems();
+
+    @Query(FILM_LIST_SELECT + " WHERE LOWER(f.genre) = LOWER(:genre)")
+    List<FilmListItem> findListByGenre(@Param("genre") String genre);
+
+    @Query(value = FILM_LIST_SELECT + " WHERE LOWER(f.genre) = LOWER(:genre)",
+            countQuery = "SELECT COUNT(f) FROM Film f WHERE LOWER(f.genre) = LOWER(:genre)")
+    Page<FilmListItem> findListByGenre(@Param("genre") String genre, Pageable pageable);
+
+    @Query(value = FILM_LIST_SELECT + " WHERE LOWER(f.judul) LIKE LOWER(CONCAT('%', :judul, '%'))",
+            countQuery = "SELECT COUNT(f) FROM Film f WHERE LOWER(f.judul) LIKE LOWER(CONCAT('%', :judul, '%'))")
+    Page<FilmListItem> findListByJudul(@Param("judul") String judul, Pageable pageable);
+
+    @Query(value = FILM_LIST_SELECT + " WHERE f.status = :status",
+            countQuery = "SELECT COUNT(f) FROM Film f WHERE f.status = :status")
+    Page<FilmListItem> findListByStatus(@Param("status") Film.StatusFilm status, Pageable pageable);
+
+    String ADVANCED_SEARCH_WHERE = " WHERE (:judul IS NULL OR LOWER(f.judul) LIKE LOWER(CONCAT('%', :judul, '%')))" +
+            " AND (:genre IS NULL OR LOWER(f.genre) LIKE LOWER(CONCAT('%', :genre, '%')))" +
+            " AND (:status IS NULL OR f.status = :status)" +
+            " AND (:minDurasi IS NULL OR f.durasi >= :minDurasi)" +
+            " AND (:maxDurasi IS NULL OR f.durasi <= :maxDurasi)";
+
+    @Query(value = FILM_LIST_SELECT + ADVANCED_SEARCH_WHERE,
+            countQuery = "SELECT COUNT(f) FROM Film f" + ADVANCED_SEARCH_WHERE)
+    Page<FilmListItem> advancedSearch(@Param("judul") String judul, @Param("genre") String genre,
+                                      @Param("status") Film.StatusFilm status,
+                                      @Param("minDurasi") Integer minDurasi, @Param("maxDurasi") Integer maxDurasi,
+                                      Pageable pageable);
+
+    @Query("SELECT f.posterHash FROM Film f WHERE f.id = :id")
+    String findPosterHashById(@Param("id") Long id);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Film f SET f.posterHash = :hash WHERE f.id = :id")
+    int updatePosterHash(@Param("id") Long id, @Param("hash") String hash);
+
+    interface FilmListItem {
+        Long getId();
+        String getJudul();
+        String getGenre();
+        int getDurasi();
+        String getSinopsis();
+        String getCast();
+        String getTrailerUrl();
+        Film.StatusFilm getStatus();
+        String getPosterHash();
+    }
 }
@@ -0,0 +1,34 @@
+package com.uasjava.tiketbioskop.repository;
+
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import com.uasjava.tiketbioskop.model.KursiReservasi;
+import com.uasjava.tiketbioskop.model.KursiReservasi.StatusReservasi;
+
+public interface KursiReservasiRepository extends JpaRepository<KursiReservasi, Long>, KursiReservasiRepositoryCustom {
+
+    // Semua kursi terpakai satu jadwal, cukup range scan pada unique index (jadwal_id, kursi_id)
+    @Query("SELECT r.kursi.id AS kursiId, r.transaksi.id AS transaksiId, r.status AS status " +
+           "FROM KursiReservasi r WHERE r.jadwal.id = :jadwalId")
+    List<KursiTerpakai> findKursiTerpakaiByJadwalId(@Param("jadwalId") Long jadwalId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE KursiReservasi r SET r.status = :status WHERE r.transaksi.id = :transaksiId")
+    int updateStatusByTransaksiId(@Param("transaksiId") Long transaksiId, @Param("status") StatusReservasi status);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM KursiReservasi r WHERE r.transaksi.id IN :transaksiIds")
+    int deleteByTransaksiIdIn(@Param("transaksiIds") Collection<Long> transaksiIds);
+
+    interface KursiTerpakai {
+        Long getKursiId();
+        Long getTransaksiId();
+        StatusReservasi getStatus();
+    }
+}
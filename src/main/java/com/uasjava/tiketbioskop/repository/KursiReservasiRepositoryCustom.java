@@ -0,0 +1,19 @@
+package com.uasjava.tiketbioskop.repository;
+
+import java.util.List;
+
+public interface KursiReservasiRepositoryCustom {
+
+    /**
+     * Tahan semua kursi untuk transaksi dengan satu INSERT multi-baris.
+     * Melempar KursiNotAvailableException jika salah satu kursi sudah direservasi.
+     */
+    void insertDitahan(Long jadwalId, Long transaksiId, List<Long> kursiIds);
+
+    /**
+     * Isi tabel reservasi dari tiket transaksi PENDING dan LUNAS yang sudah ada
+     *
+     * @return jumlah baris yang ditambahkan
+     */
+    int backfillFromTiket();
+}
@@ -0,0 +1,60 @@
+package com.uasjava.tiketbioskop.repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import com.uasjava.tiketbioskop.exception.KursiNotAvailableException;
+import com.uasjava.tiketbioskop.model.KursiReservasi.StatusReservasi;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Implementasi query reservasi kursi yang ditulis langsung dengan JDBC.
+ * JdbcTemplate memakai koneksi yang sama dengan transaksi JPA yang sedang aktif.
+ */
+@RequiredArgsConstructor
+public class KursiReservasiRepositoryImpl implements KursiReservasiRepositoryCustom {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void insertDitahan(Long jadwalId, Long transaksiId, List<Long> kursiIds) {
+        if (kursiIds.isEmpty()) {
+            return;
+        }
+
+        StringBuilder sql = new StringBuilder(
+                "INSERT INTO kursi_reservasi (jadwal_id, kursi_id, transaksi_id, status, created_at) VALUES ");
+        List<Object> params = new ArrayList<>(kursiIds.size() * 5);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < kursiIds.size(); i++) {
+            sql.append(i == 0 ? "(?, ?, ?, ?, ?)" : ", (?, ?, ?, ?, ?)");
+            params.add(jadwalId);
+            params.add(kursiIds.get(i));
+            params.add(transaksiId);
+            params.add(StatusReservasi.DITAHAN.name());
+            params.add(now);
+        }
+
+        try {
+            jdbcTemplate.update(sql.toString(), params.toArray());
+        } catch (DuplicateKeyException e) {
+            throw new KursiNotAvailableException("Beberapa kursi sudah di-booking, silakan pilih kursi lain");
+        }
+    }
+
+    @Override
+    public int backfillFromTiket() {
+        return jdbcTemplate.update(
+                "INSERT IGNORE INTO kursi_reservasi (jadwal_id, kursi_id, transaksi_id, status, created_at) " +
+                "SELECT tr.jadwal_id, t.kursi_id, tr.id, " +
+                "CASE tr.status WHEN 'LUNAS' THEN 'TERJUAL' ELSE 'DITAHAN' END, NOW() " +
+                "FROM tiket t JOIN transaksi tr ON t.transaksi_id = tr.id " +
+                "WHERE tr.status IN ('PENDING', 'LUNAS')");
+    }
+}
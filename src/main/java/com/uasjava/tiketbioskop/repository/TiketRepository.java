@@ -11,4 +11,4 @@ public interface TiketRepository extends JpaRepository<Tiket, Long> {
     // boolean existsByKursi(Kursi kursi);
     List<Tiket> findByTransaksi(Transaksi transaksi);
     List<Tiket> findByTransaksiId(Long transaksiId);
-}
\ No newline at end of file
+}
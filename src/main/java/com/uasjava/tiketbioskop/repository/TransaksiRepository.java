@@ -1,10 +1,17 @@
 package com.uasjava.tiketbioskop.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -12,6 +19,8 @@ import com.uasjava.tiketbioskop.model.Transaksi;
 import com.uasjava.tiketbioskop.model.Transaksi.StatusTransaksi;
 import com.uasjava.tiketbioskop.model.Users;
 
+import jakarta.persistence.QueryHint;
+
 public interface TransaksiRepository extends JpaRepository<Transaksi, Long> {
 
     // Custom query methods can be defined here if needed
@@ -20,12 +29,68 @@ public interface TransaksiRepository extends JpaRepository<Transaksi, Long> {
 
     List<Transaksi> findByStatus(StatusTransaksi pending);
 
-    List<Transaksi> findByStatusAndExpiredAtBefore(StatusTransaksi pending, LocalDateTime now);
+    // Kunci satu chunk transaksi PENDING yang kadaluarsa, baris yang sedang dikunci transaksi lain dilewati
+    @Query(value = "SELECT id FROM transaksi WHERE status = 'PENDING' AND expired_at < :now " +
+            "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredPendingIds(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    // Sama seperti di atas tetapi terbatas pada id tertentu (dipakai timing wheel)
+    @Query(value = "SELECT id FROM transaksi WHERE id IN (:ids) AND status = 'PENDING' AND expired_at <= :now " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockExpiredPendingIdsIn(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Update set-based tanpa memuat entity, kondisi status dijaga agar transaksi yang sudah lunas tidak tertimpa
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("UPDATE Transaksi t SET t.status = :status WHERE t.id IN :ids AND t.status = :expected")
+    int updateStatusByIdIn(@Param("ids") Collection<Long> ids,
+                           @Param("expected") StatusTransaksi expected,
+                           @Param("status") StatusTransaksi status);
+
+    // Ubah status satu transaksi hanya jika di database statusnya masih :expected. Baris yang ter-update
+    // terkunci sampai transaksi selesai, dan entity yang sudah dimuat tetap terkelola (tanpa clear)
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Transaksi t SET t.status = :status WHERE t.id = :id AND t.status = :expected")
+    int updateStatusIfCurrent(@Param("id") Long id,
+                              @Param("expected") StatusTransaksi expected,
+                              @Param("status") StatusTransaksi status);
+
+    // Untuk mengisi ulang timing wheel kadaluarsa saat aplikasi start
+    @Query("SELECT t.id AS id, t.expiredAt AS expiredAt FROM Transaksi t WHERE t.status = :status")
+    List<TransaksiExpiry> findExpiryByStatus(@Param("status") StatusTransaksi status);
+
+    // Baris laporan dibaca maju sekali jalan tanpa memuat entity. Fetch size Integer.MIN_VALUE membuat
+    // driver MySQL mengalirkan baris satu per satu alih-alih memuat seluruh hasil ke memori.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "" + Integer.MIN_VALUE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "false")
+    })
+    @Query("SELECT u.username AS username, f.judul AS judul, t.metodePembayaran AS metodePembayaran, " +
+            "t.totalHarga AS totalHarga, t.status AS status, t.createdAt AS createdAt " +
+            "FROM Transaksi t JOIN t.users u JOIN t.jadwal j JOIN j.film f " +
+            "WHERE (:dari IS NULL OR t.createdAt >= :dari) AND (:sampai IS NULL OR t.createdAt < :sampai) " +
+            "ORDER BY t.createdAt, t.id")
+    Stream<LaporanTransaksiRow> streamLaporan(@Param("dari") LocalDateTime dari, @Param("sampai") LocalDateTime sampai);
+
+    @Query("SELECT COUNT(t) FROM Transaksi t " +
+            "WHERE (:dari IS NULL OR t.createdAt >= :dari) AND (:sampai IS NULL OR t.createdAt < :sampai)")
+    long countLaporan(@Param("dari") LocalDateTime dari, @Param("sampai") LocalDateTime sampai);
 
     Page<Transaksi> findByUsers(Users users, Pageable pageable);
     Page<Transaksi> findByUsersAndStatus(Users users, StatusTransaksi status, Pageable pageable);
     Page<Transaksi> findByUsersAndKodePembayaranContainingIgnoreCase(Users users, String kodePembayaran, Pageable pageable);
 
-    // Untuk generate unique kode pembayaran
-    boolean existsByKodePembayaran(String kodePembayaran);
+    interface LaporanTransaksiRow {
+        String getUsername();
+        String getJudul();
+        String getMetodePembayaran();
+        int getTotalHarga();
+        StatusTransaksi getStatus();
+        LocalDateTime getCreatedAt();
+    }
+
+    interface TransaksiExpiry {
+        Long getId();
+        LocalDateTime getExpiredAt();
+    }
 }
@@ -1,8 +1,13 @@
 package com.uasjava.tiketbioskop.repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
@@ -21,4 +26,35 @@ public interface UserRepository extends JpaRepository<Users, Integer> {
 
     // Filter methods
     Page<Users> findByStatus(Boolean status, Pageable pageable);
+
+    // Penerima broadcast per halaman dengan kursor keyset (id > afterId), hanya kolom yang dibutuhkan
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email FROM Users u " +
+            "WHERE u.id > :afterId AND u.status = true AND u.isEnabled = true ORDER BY u.id")
+    List<BroadcastRecipient> findBroadcastRecipients(@Param("afterId") int afterId, Pageable pageable);
+
+    @Query("SELECT COUNT(u) FROM Users u WHERE u.id > :afterId AND u.status = true AND u.isEnabled = true")
+    long countBroadcastRecipients(@Param("afterId") int afterId);
+
+    // Halaman data export Excel dengan kursor keyset, tanpa memuat role dan relasi lain
+    @Query("SELECT u.id AS id, u.username AS username, u.email AS email, u.nomor AS nomor, " +
+            "u.tanggal_lahir AS tanggalLahir, u.status AS status, u.createdAt AS createdAt, u.lastLogin AS lastLogin " +
+            "FROM Users u WHERE u.id > :afterId ORDER BY u.id")
+    List<UserExportRow> findExportRows(@Param("afterId") int afterId, Pageable pageable);
+
+    interface UserExportRow {
+        Integer getId();
+        String getUsername();
+        String getEmail();
+        String getNomor();
+        LocalDate getTanggalLahir();
+        Boolean getStatus();
+        LocalDateTime getCreatedAt();
+        LocalDateTime getLastLogin();
+    }
+
+    interface BroadcastRecipient {
+        Integer getId();
+        String getUsername();
+        String getEmail();
+    }
 }
@@ -0,0 +1,102 @@
+package com.uasjava.tiketbioskop.scheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.context.Context;
+
+import com.uasjava.tiketbioskop.model.EmailOutbox;
+import com.uasjava.tiketbioskop.service.EmailOutboxService;
+import com.uasjava.tiketbioskop.service.EmailService;
+
+import jakarta.mail.internet.AddressException;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mengirim email dari tabel outbox di background, per batch.
+ * Satu batch yang diklaim dikirim dalam satu pemanggilan sehingga memakai satu koneksi SMTP.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class EmailOutboxDispatcher {
+
+    private final EmailOutboxService emailOutboxService;
+    private final EmailService emailService;
+
+    @Value("${app.email-outbox.batch-size:20}")
+    private int batchSize;
+
+    @Value("${app.email-outbox.max-batches-per-run:10}")
+    private int maxBatchesPerRun;
+
+    @Scheduled(fixedDelayString = "${app.email-outbox.poll-ms:2000}")
+    public void kirimEmailOutbox() {
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            List<EmailOutbox> outboxList;
+            try {
+                outboxList = emailOutboxService.claimBatch(batchSize);
+            } catch (Exception e) {
+                log.error("Gagal mengklaim email outbox: {}", e.getMessage(), e);
+                return;
+            }
+
+            kirimBatch(outboxList);
+            if (outboxList.size() < batchSize) {
+                return;
+            }
+        }
+    }
+
+    private void kirimBatch(List<EmailOutbox> outboxList) {
+        if (outboxList.isEmpty()) {
+            return;
+        }
+
+        List<EmailOutbox> siapKirim = new ArrayList<>(outboxList.size());
+        List<EmailService.PaymentEmail> emails = new ArrayList<>(outboxList.size());
+        for (EmailOutbox outbox : outboxList) {
+            try {
+                Context context = new Context();
+                context.setVariables(emailOutboxService.readVariables(outbox));
+                emails.add(new EmailService.PaymentEmail(outbox.getRecipient(), outbox.getSubject(),
+                        outbox.getTemplateName(), context));
+                siapKirim.add(outbox);
+            } catch (Exception e) {
+                tandaiGagal(outbox, e);
+            }
+        }
+
+        Map<Integer, Exception> failures;
+        try {
+            failures = emailService.sendPaymentEmailBatch(emails);
+        } catch (Exception e) {
+            siapKirim.forEach(outbox -> tandaiGagal(outbox, e));
+            return;
+        }
+
+        for (int i = 0; i < siapKirim.size(); i++) {
+            EmailOutbox outbox = siapKirim.get(i);
+            Exception error = failures.get(i);
+            if (error != null) {
+                tandaiGagal(outbox, error);
+                continue;
+            }
+            emailOutboxService.markSent(outbox.getId());
+            log.info("Email outbox ID: {} berhasil dikirim ke {}", outbox.getId(), outbox.getRecipient());
+        }
+    }
+
+    private void tandaiGagal(EmailOutbox outbox, Exception e) {
+        log.warn("Gagal mengirim email outbox ID: {} (percobaan ke-{}): {}",
+                outbox.getId(), outbox.getAttempts() + 1, e.getMessage());
+        // Alamat yang formatnya salah tidak akan berhasil walaupun dicoba lagi
+        emailOutboxService.markFailed(outbox.getId(), e.getMessage(), !(e instanceof AddressException));
+    }
+}
@@ -0,0 +1,91 @@
+package com.uasjava.tiketbioskop.scheduler;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.uasjava.tiketbioskop.model.Transaksi;
+import com.uasjava.tiketbioskop.repository.TransaksiRepository;
+import com.uasjava.tiketbioskop.service.TransaksiExpiryService;
+import com.uasjava.tiketbioskop.util.HierarchicalTimingWheel;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Penjadwal kadaluarsa transaksi PENDING berbasis timing wheel.
+ *
+ * Setiap transaksi didaftarkan saat checkout dan dibatalkan dari wheel saat lunas atau dibatalkan user,
+ * sehingga kursi yang ditahan dilepas paling lambat satu tick setelah {@code expiredAt}.
+ * Wheel hanya ada di memori, transaksi yang terlewat karena restart ditangani {@link TransaksiScheduler}.
+ */
+@Component
+@Slf4j
+public class TransaksiExpiryWheel {
+
+    private static final long TICK_MILLIS = 1000;
+    private static final int WHEEL_SIZE = 64;
+    private static final int LEVELS = 3;
+    private static final long RETRY_DELAY_MILLIS = 5000;
+
+    private final TransaksiRepository transaksiRepository;
+    private final TransaksiExpiryService transaksiExpiryService;
+    private final int batchSize;
+    private final HierarchicalTimingWheel<Long> wheel;
+
+    public TransaksiExpiryWheel(TransaksiRepository transaksiRepository,
+                                TransaksiExpiryService transaksiExpiryService,
+                                @Value("${app.transaksi.expiry-batch-size:100}") int batchSize) {
+        this.transaksiRepository = transaksiRepository;
+        this.transaksiExpiryService = transaksiExpiryService;
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new HierarchicalTimingWheel<>(TICK_MILLIS, WHEEL_SIZE, LEVELS, System.currentTimeMillis());
+    }
+
+    public void register(Long transaksiId, LocalDateTime expiredAt) {
+        // Dibulatkan ke tick berikutnya agar tidak pernah terpicu sebelum expiredAt
+        long deadline = expiredAt.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() + TICK_MILLIS;
+        wheel.schedule(transaksiId, deadline);
+    }
+
+    public void cancel(Long transaksiId) {
+        wheel.cancel(transaksiId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void muatTransaksiPending() {
+        List<TransaksiRepository.TransaksiExpiry> pending =
+                transaksiRepository.findExpiryByStatus(Transaksi.StatusTransaksi.PENDING);
+        pending.forEach(row -> register(row.getId(), row.getExpiredAt()));
+        log.info("Timing wheel kadaluarsa diisi dengan {} transaksi PENDING", pending.size());
+    }
+
+    @Scheduled(fixedRate = TICK_MILLIS)
+    public void tick() {
+        List<Long> expiredIds = wheel.advance(System.currentTimeMillis());
+        if (expiredIds.isEmpty()) {
+            return;
+        }
+
+        int dibatalkan = 0;
+        for (int from = 0; from < expiredIds.size(); from += batchSize) {
+            List<Long> batch = expiredIds.subList(from, Math.min(from + batchSize, expiredIds.size()));
+            try {
+                dibatalkan += transaksiExpiryService.batalkanKadaluarsa(batch).size();
+            } catch (Exception e) {
+                log.error("Gagal membatalkan batch transaksi kadaluarsa, dicoba lagi: {}", e.getMessage(), e);
+                long retryAt = System.currentTimeMillis() + RETRY_DELAY_MILLIS;
+                batch.forEach(id -> wheel.schedule(id, retryAt));
+            }
+        }
+
+        if (dibatalkan > 0) {
+            log.info("Timing wheel membatalkan {} transaksi yang kadaluarsa", dibatalkan);
+        }
+    }
+}
@@ -3,48 +3,50 @@ package com.uasjava.tiketbioskop.scheduler;
 import java.time.LocalDateTime;
 import java.util.List;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import com.uasjava.tiketbioskop.model.Transaksi;
-import com.uasjava.tiketbioskop.repository.TransaksiRepository;
+import com.uasjava.tiketbioskop.service.TransaksiExpiryService;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+/**
+ * Sweep pemulihan untuk transaksi kadaluarsa yang tidak tertangani {@link TransaksiExpiryWheel},
+ * misalnya transaksi yang kadaluarsa saat aplikasi sedang mati.
+ * Tunggakan dibersihkan per chunk, masing-masing dalam transaksi database sendiri.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TransaksiScheduler {
 
-    private final TransaksiRepository transaksiRepository;
+    private final TransaksiExpiryService transaksiExpiryService;
 
-    @Scheduled(fixedRate = 60000) // tiap 1 menit cek
-    @Transactional
+    @Value("${app.transaksi.expiry-chunk-size:1000}")
+    private int chunkSize;
+
+    @Scheduled(fixedRateString = "${app.transaksi.recovery-sweep-ms:300000}") // default tiap 5 menit
     public void batalkanTransaksiYangKadaluarsa() {
         try {
-            log.info("Menjalankan scheduler untuk membatalkan transaksi yang kadaluarsa...");
-
-            List<Transaksi> expiredTransactions = transaksiRepository.findByStatusAndExpiredAtBefore(
-                Transaksi.StatusTransaksi.PENDING, LocalDateTime.now()
-            );
-
-            if (expiredTransactions.isEmpty()) {
+            log.info("Menjalankan sweep pemulihan untuk membatalkan transaksi yang kadaluarsa...");
+
+            LocalDateTime now = LocalDateTime.now();
+            int size = Math.max(1, chunkSize);
+            int dibatalkan = 0;
+            List<Long> chunk;
+            do {
+                chunk = transaksiExpiryService.batalkanChunkKadaluarsa(now, size);
+                dibatalkan += chunk.size();
+            } while (chunk.size() == size);
+
+            if (dibatalkan == 0) {
                 log.debug("Tidak ada transaksi yang kadaluarsa");
                 return;
             }
 
-            // Update status transaksi menjadi DIBATALKAN
-            for (Transaksi transaksi : expiredTransactions) {
-                transaksi.setStatus(Transaksi.StatusTransaksi.DIBATALKAN);
-                log.debug("Membatalkan transaksi ID: {} dengan kode pembayaran: {}",
-                    transaksi.getId(), transaksi.getKodePembayaran());
-            }
-
-            transaksiRepository.saveAll(expiredTransactions);
-
-            log.info("Berhasil membatalkan {} transaksi yang kadaluarsa", expiredTransactions.size());
+            log.info("Berhasil membatalkan {} transaksi yang kadaluarsa", dibatalkan);
 
         } catch (Exception e) {
             log.error("Error saat menjalankan scheduler pembatalan transaksi kadaluarsa: {}", e.getMessage(), e);
@@ -0,0 +1,299 @@
+package com.uasjava.tiketbioskop.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.web.util.HtmlUtils;
+import org.thymeleaf.TemplateEngine;
+import org.thymeleaf.context.Context;
+
+import com.uasjava.tiketbioskop.dto.BroadcastJobDTO;
+import com.uasjava.tiketbioskop.dto.BroadcastRequestDTO;
+import com.uasjava.tiketbioskop.exception.ResourceNotFoundException;
+import com.uasjava.tiketbioskop.model.BroadcastJob;
+import com.uasjava.tiketbioskop.model.BroadcastJob.StatusBroadcast;
+import com.uasjava.tiketbioskop.repository.BroadcastJobRepository;
+import com.uasjava.tiketbioskop.repository.UserRepository;
+import com.uasjava.tiketbioskop.repository.UserRepository.BroadcastRecipient;
+import com.uasjava.tiketbioskop.util.TokenBucket;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcast email admin ke semua user aktif.
+ *
+ * Penerima dibaca per halaman dengan kursor keyset (id > lastUserId) sehingga memori yang dipakai
+ * hanya sebesar satu halaman, berapa pun jumlah user. Template di-render sekali per job, lalu nama
+ * penerima disisipkan dengan penggantian teks {@code {{nama}}}. Email dikirim per kelompok oleh
+ * pool pengirim dengan laju dibatasi token bucket. Kursor dan penghitung disimpan setelah setiap
+ * halaman, sehingga job yang terputus karena restart dilanjutkan dari halaman terakhir.
+ */
+@Service
+@Slf4j
+public class BroadcastEmailService {
+
+    private static final String TEMPLATE = "email/broadcast";
+    private static final String NAMA_PLACEHOLDER = "{{nama}}";
+    private static final Locale LOCALE = Locale.forLanguageTag("id-ID");
+
+    private final BroadcastJobRepository broadcastJobRepository;
+    private final UserRepository userRepository;
+    private final EmailService emailService;
+    private final TemplateEngine templateEngine;
+    private final int pageSize;
+    private final int chunkSize;
+    private final TokenBucket rateLimiter;
+    private final ExecutorService jobRunner;
+    private final ThreadPoolExecutor senderPool;
+    private final Set<Long> cancelRequested = ConcurrentHashMap.newKeySet();
+
+    private final Counter sent;
+    private final Counter failed;
+
+    @Value("${spring.application.name:Tiket Bioskop}")
+    private String appName;
+
+    public BroadcastEmailService(BroadcastJobRepository broadcastJobRepository,
+                                 UserRepository userRepository,
+                                 EmailService emailService,
+                                 TemplateEngine templateEngine,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.broadcast.page-size:500}") int pageSize,
+                                 @Value("${app.broadcast.chunk-size:20}") int chunkSize,
+                                 @Value("${app.broadcast.rate-per-second:20}") double ratePerSecond,
+                                 @Value("${app.broadcast.sender-threads:4}") int senderThreads) {
+        this.broadcastJobRepository = broadcastJobRepository;
+        this.userRepository = userRepository;
+        this.emailService = emailService;
+        this.templateEngine = templateEngine;
+        this.pageSize = pageSize;
+        this.chunkSize = Math.min(chunkSize, pageSize);
+        this.rateLimiter = new TokenBucket(ratePerSecond, Math.max(ratePerSecond, this.chunkSize));
+
+        this.jobRunner = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "broadcast-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.senderPool = new ThreadPoolExecutor(senderThreads, senderThreads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), runnable -> {
+                    Thread thread = new Thread(runnable, "broadcast-mail-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        this.sent = Counter.builder("tiketbioskop.broadcast.sent")
+                .description("Jumlah email broadcast yang terkirim")
+                .register(meterRegistry);
+        this.failed = Counter.builder("tiketbioskop.broadcast.failed")
+                .description("Jumlah email broadcast yang gagal dikirim")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lanjutkan job yang belum selesai saat aplikasi terakhir berhenti
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void lanjutkanJobTertunda() {
+        List<BroadcastJob> jobs = broadcastJobRepository.findByStatusInOrderByIdAsc(
+                EnumSet.of(StatusBroadcast.QUEUED, StatusBroadcast.RUNNING));
+        jobs.forEach(job -> {
+            log.info("Melanjutkan job broadcast ID: {} dari user ID > {}", job.getId(), job.getLastUserId());
+            submit(job.getId());
+        });
+    }
+
+    public BroadcastJobDTO buatJob(BroadcastRequestDTO request, String createdBy) {
+        BroadcastJob job = broadcastJobRepository.save(BroadcastJob.builder()
+                .subject(request.getSubject())
+                .judul(request.getJudul())
+                .isi(request.getIsi())
+                .createdBy(createdBy)
+                .build());
+        log.info("Job broadcast ID: {} dibuat oleh {}", job.getId(), createdBy);
+        submit(job.getId());
+        return BroadcastJobDTO.from(job);
+    }
+
+    public BroadcastJobDTO getJob(Long jobId) {
+        return BroadcastJobDTO.from(findJob(jobId));
+    }
+
+    public List<BroadcastJobDTO> getJobs() {
+        return broadcastJobRepository.findTop50ByOrderByIdDesc().stream()
+                .map(BroadcastJobDTO::from)
+                .toList();
+    }
+
+    /**
+     * Batalkan job, pengiriman berhenti setelah kelompok email yang sedang berjalan selesai
+     */
+    public BroadcastJobDTO batalkanJob(Long jobId) {
+        findJob(jobId);
+        int updated = broadcastJobRepository.updateStatus(jobId,
+                EnumSet.of(StatusBroadcast.QUEUED, StatusBroadcast.RUNNING),
+                StatusBroadcast.CANCELLED, LocalDateTime.now(), null);
+        if (updated == 0) {
+            throw new IllegalStateException("Job broadcast sudah selesai atau sudah dibatalkan");
+        }
+        cancelRequested.add(jobId);
+        log.info("Job broadcast ID: {} dibatalkan", jobId);
+        return getJob(jobId);
+    }
+
+    /**
+     * Lanjutkan job yang dibatalkan atau gagal dari kursor terakhir
+     */
+    public BroadcastJobDTO lanjutkanJob(Long jobId) {
+        findJob(jobId);
+        int updated = broadcastJobRepository.updateStatus(jobId,
+                EnumSet.of(StatusBroadcast.CANCELLED, StatusBroadcast.FAILED),
+                StatusBroadcast.QUEUED, null, null);
+        if (updated == 0) {
+            throw new IllegalStateException("Hanya job yang dibatalkan atau gagal yang bisa dilanjutkan");
+        }
+        cancelRequested.remove(jobId);
+        submit(jobId);
+        return getJob(jobId);
+    }
+
+    private BroadcastJob findJob(Long jobId) {
+        return broadcastJobRepository.findById(jobId)
+                .orElseThrow(() -> new ResourceNotFoundException("Job broadcast dengan ID " + jobId + " tidak ditemukan"));
+    }
+
+    private void submit(Long jobId) {
+        jobRunner.execute(() -> jalankan(jobId));
+    }
+
+    private void jalankan(Long jobId) {
+        BroadcastJob job = broadcastJobRepository.findById(jobId).orElse(null);
+        if (job == null || cancelRequested.remove(jobId)) {
+            return;
+        }
+
+        int cursor = job.getLastUserId();
+        long total = job.getSentCount() + job.getFailedCount() + userRepository.countBroadcastRecipients(cursor);
+        if (broadcastJobRepository.start(jobId, LocalDateTime.now(), total) == 0) {
+            return;
+        }
+
+        try {
+            String html = render(job);
+            while (true) {
+                List<BroadcastRecipient> page = userRepository.findBroadcastRecipients(cursor, PageRequest.of(0, pageSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                cursor = kirimHalaman(job, html, page);
+                if (cancelRequested.remove(jobId) || broadcastJobRepository.findStatusById(jobId) != StatusBroadcast.RUNNING) {
+                    log.info("Job broadcast ID: {} berhenti di user ID: {}", jobId, cursor);
+                    return;
+                }
+            }
+
+            broadcastJobRepository.updateStatus(jobId, EnumSet.of(StatusBroadcast.RUNNING),
+                    StatusBroadcast.COMPLETED, LocalDateTime.now(), null);
+            log.info("Job broadcast ID: {} selesai", jobId);
+        } catch (InterruptedException e) {
+            // Aplikasi berhenti, status tetap RUNNING sehingga dilanjutkan saat start berikutnya
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.error("Job broadcast ID: {} gagal: {}", jobId, e.getMessage(), e);
+            String error = e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage();
+            broadcastJobRepository.updateStatus(jobId, EnumSet.of(StatusBroadcast.RUNNING),
+                    StatusBroadcast.FAILED, LocalDateTime.now(), error);
+        }
+    }
+
+    /**
+     * Kirim satu halaman penerima per kelompok dan simpan progres.
+     * Mengembalikan id user terakhir yang sudah diproses, lebih kecil dari akhir halaman jika job dibatalkan.
+     */
+    private int kirimHalaman(BroadcastJob job, String html, List<BroadcastRecipient> page)
+            throws InterruptedException {
+        List<Future<Integer>> futures = new ArrayList<>();
+        List<Integer> sizes = new ArrayList<>();
+        int lastSubmittedId = job.getLastUserId();
+
+        for (int from = 0; from < page.size(); from += chunkSize) {
+            if (cancelRequested.contains(job.getId())) {
+                break;
+            }
+            List<BroadcastRecipient> chunk = page.subList(from, Math.min(from + chunkSize, page.size()));
+            rateLimiter.acquire(chunk.size());
+
+            List<EmailService.HtmlEmail> emails = new ArrayList<>(chunk.size());
+            for (BroadcastRecipient recipient : chunk) {
+                emails.add(new EmailService.HtmlEmail(recipient.getEmail(), job.getSubject(),
+                        html.replace(NAMA_PLACEHOLDER, HtmlUtils.htmlEscape(recipient.getUsername()))));
+            }
+            futures.add(senderPool.submit(() -> emailService.sendHtmlEmailBatch(emails).size()));
+            sizes.add(chunk.size());
+            lastSubmittedId = chunk.get(chunk.size() - 1).getId();
+        }
+
+        long jumlahGagal = 0;
+        long jumlahTerkirim = 0;
+        for (int i = 0; i < futures.size(); i++) {
+            int gagal;
+            try {
+                gagal = futures.get(i).get();
+            } catch (ExecutionException e) {
+                log.warn("Gagal mengirim kelompok email broadcast job ID: {}: {}", job.getId(), e.getCause().getMessage());
+                gagal = sizes.get(i);
+            }
+            jumlahGagal += gagal;
+            jumlahTerkirim += sizes.get(i) - gagal;
+        }
+
+        sent.increment(jumlahTerkirim);
+        failed.increment(jumlahGagal);
+        if (!futures.isEmpty()) {
+            broadcastJobRepository.saveProgress(job.getId(), lastSubmittedId, jumlahTerkirim, jumlahGagal);
+            job.setLastUserId(lastSubmittedId);
+        }
+        return lastSubmittedId;
+    }
+
+    private String render(BroadcastJob job) {
+        // User belum memiliki preferensi bahasa, template di-render sekali dengan locale default
+        Context context = new Context(LOCALE);
+        context.setVariable("judul", job.getJudul());
+        context.setVariable("isi", job.getIsi());
+        context.setVariable("username", NAMA_PLACEHOLDER);
+        context.setVariable("appName", appName);
+        context.setVariable("currentYear", LocalDate.now().getYear());
+        return templateEngine.process(TEMPLATE, context);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        jobRunner.shutdownNow();
+        senderPool.shutdownNow();
+    }
+}
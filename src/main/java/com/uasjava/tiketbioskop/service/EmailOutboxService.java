@@ -0,0 +1,160 @@
+package com.uasjava.tiketbioskop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uasjava.tiketbioskop.model.EmailOutbox;
+import com.uasjava.tiketbioskop.repository.EmailOutboxRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Antrean email berbasis tabel email_outbox.
+ *
+ * {@link #enqueue} wajib dipanggil di dalam transaksi bisnis sehingga email hanya tercatat jika
+ * transaksi commit. Dispatcher mengklaim batch dengan lease, mengirim di luar transaksi database,
+ * lalu menandai hasilnya. Kegagalan dicoba lagi dengan backoff eksponensial sampai batas percobaan.
+ */
+@Service
+@Slf4j
+public class EmailOutboxService {
+
+    private final EmailOutboxRepository emailOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final Duration lease;
+    private final Duration baseBackoff;
+    private final Duration maxBackoff;
+    private final int maxAttempts;
+
+    public EmailOutboxService(EmailOutboxRepository emailOutboxRepository,
+                              ObjectMapper objectMapper,
+                              @Value("${app.email-outbox.lease-seconds:120}") long leaseSeconds,
+                              @Value("${app.email-outbox.base-backoff-seconds:30}") long baseBackoffSeconds,
+                              @Value("${app.email-outbox.max-backoff-seconds:3600}") long maxBackoffSeconds,
+                              @Value("${app.email-outbox.max-attempts:8}") int maxAttempts) {
+        this.emailOutboxRepository = emailOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.lease = Duration.ofSeconds(leaseSeconds);
+        this.baseBackoff = Duration.ofSeconds(baseBackoffSeconds);
+        this.maxBackoff = Duration.ofSeconds(maxBackoffSeconds);
+        this.maxAttempts = maxAttempts;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(String recipient, String subject, String templateName, Map<String, Object> variables) {
+        try {
+            emailOutboxRepository.save(EmailOutbox.builder()
+                    .recipient(recipient)
+                    .subject(subject)
+                    .templateName(templateName)
+                    .payload(objectMapper.writeValueAsString(variables))
+                    .nextAttemptAt(LocalDateTime.now())
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gagal menyimpan variabel email ke outbox", e);
+        }
+    }
+
+    /**
+     * Klaim batch email yang siap dikirim dan tandai SENDING sampai lease habis.
+     * Email yang lease-nya habis dihitung satu percobaan, dan ditandai FAILED jika sudah mencapai batas.
+     */
+    @Transactional
+    public List<EmailOutbox> claimBatch(int batchSize) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = emailOutboxRepository.lockDueIds(now, batchSize);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        List<EmailOutbox> claimed = new ArrayList<>(ids.size());
+        for (EmailOutbox outbox : emailOutboxRepository.findAllById(ids)) {
+            if (outbox.getStatus() == EmailOutbox.StatusOutbox.SENDING) {
+                // Percobaan sebelumnya tidak selesai (dispatcher mati atau macet), tetap dihitung agar email
+                // yang selalu membuat worker macet tidak diambil ulang selamanya
+                int attempts = outbox.getAttempts() + 1;
+                outbox.setAttempts(attempts);
+                outbox.setLastError("Lease pengiriman habis sebelum selesai");
+                if (attempts >= maxAttempts) {
+                    outbox.setStatus(EmailOutbox.StatusOutbox.FAILED);
+                    outbox.setLockedUntil(null);
+                    log.error("Email outbox ID: {} ke {} gagal permanen setelah {} percobaan (lease habis)",
+                            outbox.getId(), outbox.getRecipient(), attempts);
+                    continue;
+                }
+                log.warn("Email outbox ID: {} diambil ulang setelah lease habis (percobaan ke-{})",
+                        outbox.getId(), attempts);
+            }
+            outbox.setStatus(EmailOutbox.StatusOutbox.SENDING);
+            outbox.setLockedUntil(now.plus(lease));
+            claimed.add(outbox);
+        }
+        return claimed;
+    }
+
+    @Transactional
+    public void markSent(Long outboxId) {
+        emailOutboxRepository.findById(outboxId).ifPresent(outbox -> {
+            outbox.setStatus(EmailOutbox.StatusOutbox.SENT);
+            outbox.setAttempts(outbox.getAttempts() + 1);
+            outbox.setSentAt(LocalDateTime.now());
+            outbox.setLockedUntil(null);
+            outbox.setLastError(null);
+        });
+    }
+
+    @Transactional
+    public void markFailed(Long outboxId, String error) {
+        markFailed(outboxId, error, true);
+    }
+
+    /**
+     * Catat percobaan yang gagal. Kegagalan yang tidak bisa dicoba lagi (misalnya alamat tidak valid)
+     * langsung FAILED tanpa menunggu batas percobaan.
+     */
+    @Transactional
+    public void markFailed(Long outboxId, String error, boolean retryable) {
+        emailOutboxRepository.findById(outboxId).ifPresent(outbox -> {
+            int attempts = outbox.getAttempts() + 1;
+            outbox.setAttempts(attempts);
+            outbox.setLockedUntil(null);
+            outbox.setLastError(error != null && error.length() > 500 ? error.substring(0, 500) : error);
+
+            if (!retryable || attempts >= maxAttempts) {
+                outbox.setStatus(EmailOutbox.StatusOutbox.FAILED);
+                log.error("Email outbox ID: {} ke {} gagal permanen setelah {} percobaan",
+                        outboxId, outbox.getRecipient(), attempts);
+                return;
+            }
+
+            outbox.setStatus(EmailOutbox.StatusOutbox.PENDING);
+            outbox.setNextAttemptAt(LocalDateTime.now().plus(backoff(attempts)));
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    public Map<String, Object> readVariables(EmailOutbox outbox) {
+        try {
+            return outbox.getPayload() == null ? Map.of() : objectMapper.readValue(outbox.getPayload(), Map.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Payload email outbox ID: " + outbox.getId() + " tidak valid", e);
+        }
+    }
+
+    private Duration backoff(int attempts) {
+        // 30s, 60s, 120s, ... dibatasi maxBackoff
+        long factor = 1L << Math.min(attempts - 1, 20);
+        Duration delay = baseBackoff.multipliedBy(factor);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+}
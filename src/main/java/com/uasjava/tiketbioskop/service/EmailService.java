@@ -1,8 +1,31 @@
 package com.uasjava.tiketbioskop.service;
+import java.util.List;
+import java.util.Map;
+
 import org.thymeleaf.context.Context;
 import jakarta.mail.MessagingException;
 
 public interface EmailService {
     void sendEmail(String to, String subject, String body);
     void sendPaymentEmail(String to, String subject, String templateName, Context context) throws MessagingException;
+
+    /**
+     * Kirim beberapa email template sekaligus melalui satu koneksi SMTP.
+     * Mengembalikan error per index email yang gagal, map kosong jika semua terkirim. Alamat dengan format
+     * tidak valid tidak dikirim dan dikembalikan sebagai {@link jakarta.mail.internet.AddressException}.
+     */
+    Map<Integer, Exception> sendPaymentEmailBatch(List<PaymentEmail> emails);
+
+    /**
+     * Kirim email HTML yang sudah di-render sekaligus melalui satu koneksi SMTP.
+     * Mengembalikan error per index email yang gagal, map kosong jika semua terkirim. Alamat dengan format
+     * tidak valid tidak dikirim dan dikembalikan sebagai {@link jakarta.mail.internet.AddressException}.
+     */
+    Map<Integer, Exception> sendHtmlEmailBatch(List<HtmlEmail> emails);
+
+    record PaymentEmail(String to, String subject, String templateName, Context context) {
+    }
+
+    record HtmlEmail(String to, String subject, String html) {
+    }
 }
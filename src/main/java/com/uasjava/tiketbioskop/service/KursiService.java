@@ -9,4 +9,5 @@ public interface KursiService {
     void delete(Long id);
     KursiDTO getById(Long id);
     Page<KursiDTO> getAll(Pageable pageable);
+    SeatMapDTO getSeatMap(Long jadwalId);
 }
@@ -0,0 +1,369 @@
+package com.uasjava.tiketbioskop.service;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import com.uasjava.tiketbioskop.repository.FilmPosterRepository;
+import com.uasjava.tiketbioskop.repository.FilmRepository;
+import com.uasjava.tiketbioskop.service.helper.PosterVariantRenderer;
+import com.uasjava.tiketbioskop.util.ImageUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Penyimpanan poster film dalam bentuk file gambar asli (sudah di-decompress) di folder upload.
+ *
+ * Tabel film_poster tetap menjadi sumber data. File ditulis sekali saat poster diunggah, atau saat
+ * pertama kali diminta jika belum ada di disk, dengan nama {filmId}-{hash}.{ext}. Lokasi file poster
+ * terbaru disimpan di memori sehingga request berikutnya tidak perlu ke database. Karena poster bisa
+ * diganti lewat instance lain, hash di database dicek ulang setelah entri berumur lebih dari
+ * app.poster.index-ttl-ms. Nilai ?v= di URL tidak memicu query, sehingga URL publik dengan v acak
+ * tidak bisa dipakai membebani database; versi yang tidak cocok hanya dikirim tanpa cache immutable.
+ *
+ * Setelah file asli tersimpan, versi thumb, card dan full dibuat di background dengan nama
+ * {filmId}-{hash}-{ukuran}.jpg. Selama versi tersebut belum ada, file asli yang dikirim.
+ */
+@Service
+@Slf4j
+public class PosterStorageService {
+
+    private static final String[] EXTENSIONS = { "jpg", "png", "gif", "webp", "bin" };
+
+    private final FilmRepository filmRepository;
+    private final FilmPosterRepository filmPosterRepository;
+    private final PosterVariantRenderer variantRenderer;
+    private final Path directory;
+    private final long indexTtlMillis;
+    private final ThreadPoolExecutor variantPool;
+
+    private final Map<Long, IndexEntry> index = new ConcurrentHashMap<>();
+    // Poster (filmId-hash) yang versinya sedang dibuat atau tidak bisa dibaca ImageIO
+    private final Set<String> variantInFlight = ConcurrentHashMap.newKeySet();
+    private final Set<String> variantUnsupported = ConcurrentHashMap.newKeySet();
+
+    private final Counter variantGenerated;
+    private final Counter variantSkipped;
+
+    public PosterStorageService(FilmRepository filmRepository,
+                                FilmPosterRepository filmPosterRepository,
+                                PosterVariantRenderer variantRenderer,
+                                MeterRegistry meterRegistry,
+                                @Value("${app.upload.dir:uploads}") String uploadDir,
+                                @Value("${app.poster.variant-threads:2}") int variantThreads,
+                                @Value("${app.poster.variant-queue-capacity:100}") int queueCapacity,
+                                @Value("${app.poster.index-ttl-ms:30000}") long indexTtlMillis) throws IOException {
+        this.filmRepository = filmRepository;
+        this.filmPosterRepository = filmPosterRepository;
+        this.variantRenderer = variantRenderer;
+        this.directory = Paths.get(uploadDir, "posters");
+        Files.createDirectories(this.directory);
+        this.indexTtlMillis = indexTtlMillis;
+
+        this.variantGenerated = Counter.builder("tiketbioskop.poster.variant.generated")
+                .description("Jumlah poster yang versi thumb, card dan full-nya selesai dibuat")
+                .register(meterRegistry);
+        this.variantSkipped = Counter.builder("tiketbioskop.poster.variant.skipped")
+                .description("Jumlah pembuatan versi poster yang dilewati karena antrean penuh")
+                .register(meterRegistry);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.variantPool = new ThreadPoolExecutor(variantThreads, variantThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "poster-variant-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> {
+                    variantSkipped.increment();
+                    throw new RejectedExecutionException("Antrean pembuatan versi poster penuh");
+                });
+    }
+
+    /**
+     * Simpan poster ke disk dan jadikan poster aktif film. File poster lama film dihapus.
+     */
+    public StoredPoster store(Long filmId, byte[] image) throws IOException {
+        String hash = hash(image);
+        String contentType = ImageUtils.detectContentType(image);
+        Path target = directory.resolve(filmId + "-" + hash + "." + extension(contentType));
+        if (!Files.exists(target)) {
+            Path temp = Files.createTempFile(directory, filmId + "-", ".tmp");
+            try {
+                Files.write(temp, image);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+
+        StoredPoster stored = toStoredPoster(filmId, hash, target, contentType, UkuranPoster.ORIGINAL);
+        index.put(filmId, new IndexEntry(stored, System.currentTimeMillis()));
+        deleteFiles(filmId, hash);
+        scheduleVariants(stored);
+        return stored;
+    }
+
+    /**
+     * Poster film dalam ukuran tertentu. Jika versi tersebut belum selesai dibuat, file asli yang
+     * dikembalikan dan pembuatannya dijadwalkan.
+     */
+    public Optional<StoredPoster> find(Long filmId, UkuranPoster ukuran) throws IOException {
+        Optional<StoredPoster> original = find(filmId);
+        if (original.isEmpty() || ukuran == UkuranPoster.ORIGINAL) {
+            return original;
+        }
+
+        StoredPoster poster = original.get();
+        Path variant = variantPath(poster, ukuran);
+        if (Files.exists(variant)) {
+            return Optional.of(toStoredPoster(filmId, poster.hash(), variant, "image/jpeg", ukuran));
+        }
+        scheduleVariants(poster);
+        return original;
+    }
+
+    /**
+     * Poster aktif film. Jika belum ada di disk, poster diambil dari database lalu ditulis ke disk.
+     * Entri di memori dipakai tanpa ke database selama belum kedaluwarsa.
+     */
+    public Optional<StoredPoster> find(Long filmId) throws IOException {
+        long now = System.currentTimeMillis();
+        IndexEntry cached = index.get(filmId);
+        if (cached != null && now - cached.checkedAt() < indexTtlMillis && Files.exists(cached.poster().file())) {
+            return Optional.of(cached.poster());
+        }
+
+        String hash = filmRepository.findPosterHashById(filmId);
+        if (hash == null) {
+            index.remove(filmId);
+            return Optional.empty();
+        }
+        if (cached != null && hash.equals(cached.poster().hash()) && Files.exists(cached.poster().file())) {
+            index.put(filmId, new IndexEntry(cached.poster(), now));
+            return Optional.of(cached.poster());
+        }
+        for (String extension : EXTENSIONS) {
+            Path file = directory.resolve(filmId + "-" + hash + "." + extension);
+            if (Files.exists(file)) {
+                StoredPoster stored = toStoredPoster(filmId, hash, file, contentType(extension), UkuranPoster.ORIGINAL);
+                index.put(filmId, new IndexEntry(stored, now));
+                return Optional.of(stored);
+            }
+        }
+
+        byte[] data = filmPosterRepository.findDataByFilmId(filmId);
+        if (data == null) {
+            return Optional.empty();
+        }
+        log.debug("Poster film ID: {} belum ada di disk, ditulis dari database", filmId);
+        try {
+            return Optional.of(store(filmId, ImageUtils.decompressImage(data)));
+        } catch (IllegalArgumentException e) {
+            log.error("Poster film ID: {} di database rusak: {}", filmId, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    private void scheduleVariants(StoredPoster original) {
+        String key = original.filmId() + "-" + original.hash();
+        if (variantUnsupported.contains(key) || !variantInFlight.add(key)) {
+            return;
+        }
+        try {
+            variantPool.execute(() -> {
+                try {
+                    generateVariants(original, key);
+                } catch (Exception e) {
+                    // Tidak dicoba ulang sampai poster diganti atau aplikasi restart, file asli tetap dikirim
+                    variantUnsupported.add(key);
+                    log.warn("Gagal membuat versi poster film ID: {}: {}", original.filmId(), e.getMessage());
+                } finally {
+                    variantInFlight.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Antrean penuh, poster ini bisa dijadwalkan lagi pada request berikutnya
+            variantInFlight.remove(key);
+        }
+    }
+
+    private void generateVariants(StoredPoster original, String key) throws IOException {
+        BufferedImage image = variantRenderer.read(original.file());
+        if (image == null) {
+            variantUnsupported.add(key);
+            log.info("Format poster film ID: {} ({}) tidak didukung ImageIO, hanya file asli yang dikirim",
+                    original.filmId(), original.contentType());
+            return;
+        }
+
+        for (UkuranPoster ukuran : UkuranPoster.values()) {
+            if (ukuran == UkuranPoster.ORIGINAL) {
+                continue;
+            }
+            Path target = variantPath(original, ukuran);
+            if (Files.exists(target)) {
+                continue;
+            }
+            Path temp = Files.createTempFile(directory, original.filmId() + "-", ".tmp");
+            try {
+                variantRenderer.render(image, Math.min(ukuran.getWidth(), image.getWidth()), temp);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+        }
+        variantGenerated.increment();
+        log.debug("Versi poster film ID: {} selesai dibuat", original.filmId());
+    }
+
+    private Path variantPath(StoredPoster original, UkuranPoster ukuran) {
+        return directory.resolve(original.filmId() + "-" + original.hash() + "-" + ukuran.getParam() + ".jpg");
+    }
+
+    /**
+     * Hapus semua file poster film, dipanggil saat film dihapus
+     */
+    public void delete(Long filmId) {
+        index.remove(filmId);
+        try {
+            deleteFiles(filmId, null);
+        } catch (IOException e) {
+            log.warn("Gagal menghapus file poster film ID: {}: {}", filmId, e.getMessage());
+        }
+    }
+
+    /**
+     * Hash isi poster, dipakai sebagai versi di URL poster dan sebagai ETag
+     */
+    public static String hash(byte[] image) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(image);
+            return HexFormat.of().formatHex(digest, 0, 16);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 tidak tersedia", e);
+        }
+    }
+
+    /**
+     * Hapus file poster film selain file asli dan versi milik hash {@code keepHash}
+     */
+    private void deleteFiles(Long filmId, String keepHash) throws IOException {
+        String keepPrefix = keepHash != null ? filmId + "-" + keepHash : null;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, filmId + "-*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if ((keepPrefix == null || !name.startsWith(keepPrefix)) && !name.endsWith(".tmp")) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+    }
+
+    private StoredPoster toStoredPoster(Long filmId, String hash, Path file, String contentType,
+                                        UkuranPoster ukuran) throws IOException {
+        return new StoredPoster(filmId, hash, file, contentType, Files.size(file),
+                Files.getLastModifiedTime(file).toMillis(), ukuran);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        variantPool.shutdownNow();
+    }
+
+    private static String extension(String contentType) {
+        return switch (contentType) {
+            case "image/jpeg" -> "jpg";
+            case "image/png" -> "png";
+            case "image/gif" -> "gif";
+            case "image/webp" -> "webp";
+            default -> "bin";
+        };
+    }
+
+    private static String contentType(String extension) {
+        return switch (extension) {
+            case "jpg" -> "image/jpeg";
+            case "png" -> "image/png";
+            case "gif" -> "image/gif";
+            case "webp" -> "image/webp";
+            default -> "application/octet-stream";
+        };
+    }
+
+    /**
+     * Entri index poster beserta waktu terakhir hash-nya dicocokkan dengan database
+     */
+    private record IndexEntry(StoredPoster poster, long checkedAt) {
+    }
+
+    public record StoredPoster(Long filmId, String hash, Path file, String contentType, long size, long lastModified,
+                               UkuranPoster ukuran) {
+
+        /**
+         * Penanda isi file untuk ETag, berbeda untuk setiap ukuran dari poster yang sama
+         */
+        public String tag() {
+            return ukuran == UkuranPoster.ORIGINAL ? hash : hash + "-" + ukuran.getParam();
+        }
+    }
+
+    public enum UkuranPoster {
+        THUMB("thumb", 200),
+        CARD("card", 480),
+        FULL("full", 1280),
+        ORIGINAL("original", 0);
+
+        private final String param;
+        private final int width;
+
+        UkuranPoster(String param, int width) {
+            this.param = param;
+            this.width = width;
+        }
+
+        public String getParam() {
+            return param;
+        }
+
+        public int getWidth() {
+            return width;
+        }
+
+        /**
+         * Ukuran dari parameter {@code ?size=}, tanpa parameter berarti file asli
+         */
+        public static UkuranPoster fromParam(String param) {
+            if (param == null || param.isBlank()) {
+                return ORIGINAL;
+            }
+            for (UkuranPoster ukuran : values()) {
+                if (ukuran.param.equalsIgnoreCase(param.trim())) {
+                    return ukuran;
+                }
+            }
+            throw new IllegalArgumentException("Ukuran poster tidak dikenal: " + param + ", gunakan thumb, card, full atau original");
+        }
+    }
+}
@@ -0,0 +1,319 @@
+package com.uasjava.tiketbioskop.service;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.uasjava.tiketbioskop.dto.ReportJobDTO;
+import com.uasjava.tiketbioskop.dto.ReportJobDTO.JenisLaporan;
+import com.uasjava.tiketbioskop.dto.ReportJobDTO.StatusJob;
+import com.uasjava.tiketbioskop.dto.ReportJobRequestDTO;
+import com.uasjava.tiketbioskop.exception.ResourceNotFoundException;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Job laporan yang dijalankan di luar thread request.
+ *
+ * Laporan dirender oleh pool berukuran tetap dengan antrean terbatas, sehingga permintaan laporan
+ * tidak memakai thread Tomcat yang dibutuhkan checkout. Permintaan yang identik dengan job yang
+ * masih berjalan mendapat job yang sama. Hasil disimpan sebagai file di disk dan dihapus setelah
+ * TTL habis. Daftar job disimpan di memori; file yang tersisa dari proses sebelumnya dihapus saat start.
+ */
+@Service
+@Slf4j
+public class ReportJobService {
+
+    private final TransaksiPdfService transaksiPdfService;
+    private final ReportService reportService;
+    private final Path directory;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Map<String, ReportJob> activeByKey = new ConcurrentHashMap<>();
+
+    public ReportJobService(TransaksiPdfService transaksiPdfService,
+                            ReportService reportService,
+                            @Value("${app.report-job.dir:${java.io.tmpdir}/tiketbioskop/report-jobs}") String directory,
+                            @Value("${app.report-job.threads:2}") int threads,
+                            @Value("${app.report-job.queue-capacity:10}") int queueCapacity,
+                            @Value("${app.report-job.ttl-minutes:60}") long ttlMinutes) throws IOException {
+        this.transaksiPdfService = transaksiPdfService;
+        this.reportService = reportService;
+        this.directory = Paths.get(directory);
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+
+        Files.createDirectories(this.directory);
+        deleteLeftoverFiles();
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "report-job-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    public ReportJobDTO submit(ReportJobRequestDTO request, String requestedBy) {
+        JenisLaporan jenis = request.getJenis();
+        LocalDate dari = jenis == JenisLaporan.TRANSAKSI_PDF ? request.getDari() : null;
+        LocalDate sampai = jenis == JenisLaporan.TRANSAKSI_PDF ? request.getSampai() : null;
+        if (dari != null && sampai != null && sampai.isBefore(dari)) {
+            throw new IllegalArgumentException("Tanggal akhir tidak boleh sebelum tanggal awal");
+        }
+
+        String key = jenis + "|" + dari + "|" + sampai;
+        synchronized (activeByKey) {
+            ReportJob active = activeByKey.get(key);
+            if (active != null) {
+                log.info("Permintaan laporan {} digabung ke job {} yang sedang berjalan", key, active.id);
+                return toDto(active);
+            }
+
+            ReportJob job = new ReportJob(UUID.randomUUID().toString(), key, jenis, dari, sampai);
+            jobs.put(job.id, job);
+            activeByKey.put(key, job);
+            try {
+                job.future = executor.submit(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                jobs.remove(job.id);
+                activeByKey.remove(key);
+                throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE,
+                        "Antrean laporan sedang penuh, silakan coba lagi nanti");
+            }
+            log.info("Job laporan {} ({}) dibuat oleh {}", job.id, jenis, requestedBy);
+            return toDto(job);
+        }
+    }
+
+    public ReportJobDTO getJob(String jobId) {
+        return toDto(findJob(jobId));
+    }
+
+    public List<ReportJobDTO> getJobs() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing((ReportJob job) -> job.createdAt).reversed())
+                .map(this::toDto)
+                .toList();
+    }
+
+    /**
+     * Batalkan job yang masih antre atau berjalan
+     */
+    public ReportJobDTO cancel(String jobId) {
+        ReportJob job = findJob(jobId);
+        if (!job.transition(StatusJob.CANCELLED, StatusJob.QUEUED, StatusJob.RUNNING)) {
+            throw new IllegalStateException("Job laporan sudah selesai dan tidak bisa dibatalkan");
+        }
+        job.finishedAt = LocalDateTime.now();
+        job.expiresAt = job.finishedAt.plus(ttl);
+        activeByKey.remove(job.key, job);
+        Future<?> future = job.future;
+        if (future != null) {
+            future.cancel(true);
+        }
+        log.info("Job laporan {} dibatalkan", jobId);
+        return toDto(job);
+    }
+
+    /**
+     * File hasil job yang sudah selesai
+     */
+    public ReportResult getResult(String jobId) {
+        ReportJob job = findJob(jobId);
+        if (job.status != StatusJob.COMPLETED) {
+            throw new IllegalStateException("Laporan belum selesai, status saat ini: " + job.status);
+        }
+        if (job.file == null || !Files.isRegularFile(job.file)) {
+            throw new ResourceNotFoundException("File laporan untuk job " + jobId + " sudah tidak tersedia");
+        }
+        String filename = "laporan-" + job.jenis.name().toLowerCase().replace('_', '-') + "-"
+                + job.createdAt.toLocalDate() + "." + job.jenis.getExtension();
+        return new ReportResult(job.file, filename, job.jenis.getContentType());
+    }
+
+    private ReportJob findJob(String jobId) {
+        ReportJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new ResourceNotFoundException("Job laporan dengan ID " + jobId + " tidak ditemukan");
+        }
+        return job;
+    }
+
+    private void run(ReportJob job) {
+        if (!job.transition(StatusJob.RUNNING, StatusJob.QUEUED)) {
+            return;
+        }
+        job.startedAt = LocalDateTime.now();
+
+        Path temp = directory.resolve(job.id + ".tmp");
+        Path result = directory.resolve(job.id + "." + job.jenis.getExtension());
+        try {
+            try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                switch (job.jenis) {
+                    case TRANSAKSI_PDF -> {
+                        job.totalRows = transaksiPdfService.countLaporan(job.dari, job.sampai);
+                        transaksiPdfService.streamLaporanPdf(job.dari, job.sampai, out, jumlah -> job.processedRows = jumlah);
+                    }
+                    case USER_EXCEL -> {
+                        job.totalRows = reportService.countUsers();
+                        reportService.streamExcel(out, jumlah -> job.processedRows = jumlah);
+                    }
+                }
+            }
+            Files.move(temp, result, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            job.file = result;
+            if (job.transition(StatusJob.COMPLETED, StatusJob.RUNNING)) {
+                job.finishedAt = LocalDateTime.now();
+                job.expiresAt = job.finishedAt.plus(ttl);
+                log.info("Job laporan {} selesai dengan {} baris", job.id, job.processedRows);
+            } else {
+                // Dibatalkan tepat saat selesai
+                deleteQuietly(result);
+            }
+        } catch (Exception e) {
+            if (e instanceof CancellationException || Thread.currentThread().isInterrupted()) {
+                log.info("Job laporan {} berhenti karena dibatalkan", job.id);
+            } else if (job.transition(StatusJob.FAILED, StatusJob.RUNNING)) {
+                log.error("Job laporan {} gagal: {}", job.id, e.getMessage(), e);
+                job.error = e.getMessage();
+                job.finishedAt = LocalDateTime.now();
+                job.expiresAt = job.finishedAt.plus(ttl);
+            }
+        } finally {
+            deleteQuietly(temp);
+            activeByKey.remove(job.key, job);
+        }
+    }
+
+    /**
+     * Hapus job dan file hasil yang sudah melewati TTL
+     */
+    @Scheduled(fixedDelayString = "${app.report-job.cleanup-ms:300000}")
+    public void hapusJobKadaluarsa() {
+        LocalDateTime now = LocalDateTime.now();
+        jobs.values().removeIf(job -> {
+            if (job.expiresAt == null || job.expiresAt.isAfter(now)) {
+                return false;
+            }
+            if (job.file != null) {
+                deleteQuietly(job.file);
+            }
+            log.debug("Job laporan {} kadaluarsa dan dihapus", job.id);
+            return true;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void deleteLeftoverFiles() throws IOException {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                deleteQuietly(file);
+            }
+        }
+    }
+
+    private void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.warn("Gagal menghapus file laporan {}: {}", file, e.getMessage());
+        }
+    }
+
+    private ReportJobDTO toDto(ReportJob job) {
+        long total = job.totalRows;
+        long processed = job.processedRows;
+        double progress = job.status == StatusJob.COMPLETED ? 100.0
+                : total > 0 ? Math.min(100.0, processed * 100.0 / total) : 0.0;
+        return ReportJobDTO.builder()
+                .id(job.id)
+                .jenis(job.jenis)
+                .dari(job.dari)
+                .sampai(job.sampai)
+                .status(job.status)
+                .processedRows(processed)
+                .totalRows(total)
+                .progress(Math.round(progress * 10) / 10.0)
+                .error(job.error)
+                .downloadUrl(job.status == StatusJob.COMPLETED ? "/api/laporan/jobs/" + job.id + "/download" : null)
+                .createdAt(job.createdAt)
+                .startedAt(job.startedAt)
+                .finishedAt(job.finishedAt)
+                .expiresAt(job.expiresAt)
+                .build();
+    }
+
+    public record ReportResult(Path file, String filename, String contentType) {
+    }
+
+    private static final class ReportJob {
+        private final String id;
+        private final String key;
+        private final JenisLaporan jenis;
+        private final LocalDate dari;
+        private final LocalDate sampai;
+        private final LocalDateTime createdAt = LocalDateTime.now();
+
+        private volatile StatusJob status = StatusJob.QUEUED;
+        private volatile Future<?> future;
+        private volatile long totalRows;
+        private volatile long processedRows;
+        private volatile String error;
+        private volatile Path file;
+        private volatile LocalDateTime startedAt;
+        private volatile LocalDateTime finishedAt;
+        private volatile LocalDateTime expiresAt;
+
+        private ReportJob(String id, String key, JenisLaporan jenis, LocalDate dari, LocalDate sampai) {
+            this.id = id;
+            this.key = key;
+            this.jenis = jenis;
+            this.dari = dari;
+            this.sampai = sampai;
+        }
+
+        private synchronized boolean transition(StatusJob next, StatusJob... expected) {
+            for (StatusJob current : expected) {
+                if (status == current) {
+                    status = next;
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
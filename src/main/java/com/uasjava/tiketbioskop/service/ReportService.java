@@ -2,7 +2,22 @@ package com.uasjava.tiketbioskop.service;
 
 
 import java.io.IOException;
+import java.io.OutputStream;
+import java.util.function.LongConsumer;
 
 public interface ReportService {
     Object generateExcel() throws IOException;
+
+    /**
+     * Tulis Excel data user langsung ke output stream, user dibaca per halaman.
+     * Mengembalikan jumlah user yang ditulis.
+     */
+    long streamExcel(OutputStream outputStream) throws IOException;
+
+    /**
+     * Sama seperti {@link #streamExcel(OutputStream)} dengan laporan jumlah baris yang sudah ditulis
+     */
+    long streamExcel(OutputStream outputStream, LongConsumer progress) throws IOException;
+
+    long countUsers();
 }
@@ -6,31 +6,116 @@ import com.uasjava.tiketbioskop.model.Tiket;
 import com.uasjava.tiketbioskop.model.Transaksi;
 import com.uasjava.tiketbioskop.repository.TiketRepository;
 import com.uasjava.tiketbioskop.repository.TransaksiRepository;
-import lombok.RequiredArgsConstructor;
+import com.uasjava.tiketbioskop.service.helper.TiketPdfBuilderRenderer;
+import com.uasjava.tiketbioskop.service.helper.TiketPdfCache;
+import com.uasjava.tiketbioskop.service.helper.TiketPdfTemplateRenderer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
+import java.util.HexFormat;
 import java.util.List;
-
-import com.lowagie.text.*;
-import com.lowagie.text.pdf.PdfWriter;
-import com.lowagie.text.pdf.PdfPCell;
-import com.lowagie.text.pdf.PdfPTable;
-import com.lowagie.text.pdf.draw.LineSeparator;
-import java.awt.Color;
-
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.lowagie.text.DocumentException;
+
+/**
+ * Render PDF tiket transaksi lunas.
+ *
+ * Hasil render disimpan di {@link TiketPdfCache}. Saat pembayaran dikonfirmasi tiket di-render lebih
+ * dulu di pool background yang dibatasi, dan setiap transaksi hanya punya satu render yang berjalan:
+ * download yang datang saat render berlangsung menunggu hasil render tersebut.
+ *
+ * Mode render dipilih dengan {@code app.tiket-pdf.render-mode}: {@code template} menulis nilai di atas
+ * template statis yang dibangun sekali, {@code builder} menyusun dokumen dari awal.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class TiketPdfService {
 
+    // Naikkan jika tampilan tiket berubah agar PDF lama di cache tidak dipakai lagi
+    private static final String LAYOUT_VERSION = "1";
+    private static final String MODE_TEMPLATE = "template";
+
     private final TransaksiRepository transaksiRepository;
     private final TiketRepository tiketRepository;
+    private final TiketPdfCache tiketPdfCache;
+    private final TiketPdfBuilderRenderer builderRenderer;
+    private final TiketPdfTemplateRenderer templateRenderer;
+    private final String renderMode;
+    private final ThreadPoolExecutor prerenderPool;
+    private final long renderWaitMillis;
+    private final Map<Long, CompletableFuture<byte[]>> inFlight = new ConcurrentHashMap<>();
+
+    private final Counter prerenderSkipped;
+    private final Counter renderJoined;
+
+    public TiketPdfService(TransaksiRepository transaksiRepository,
+                           TiketRepository tiketRepository,
+                           TiketPdfCache tiketPdfCache,
+                           TiketPdfBuilderRenderer builderRenderer,
+                           TiketPdfTemplateRenderer templateRenderer,
+                           MeterRegistry meterRegistry,
+                           @Value("${app.tiket-pdf.render-mode:template}") String renderMode,
+                           @Value("${app.tiket-pdf.prerender-threads:2}") int prerenderThreads,
+                           @Value("${app.tiket-pdf.prerender-queue-capacity:500}") int queueCapacity,
+                           @Value("${app.tiket-pdf.render-wait-ms:10000}") long renderWaitMillis) {
+        this.transaksiRepository = transaksiRepository;
+        this.tiketRepository = tiketRepository;
+        this.tiketPdfCache = tiketPdfCache;
+        this.builderRenderer = builderRenderer;
+        this.templateRenderer = templateRenderer;
+        this.renderMode = renderMode;
+        this.renderWaitMillis = renderWaitMillis;
+
+        this.prerenderSkipped = Counter.builder("tiketbioskop.tiket.pdf.prerender.skipped")
+                .description("Jumlah pre-render tiket yang dilewati karena antrean penuh")
+                .register(meterRegistry);
+        this.renderJoined = Counter.builder("tiketbioskop.tiket.pdf.render.joined")
+                .description("Jumlah download yang menunggu render tiket yang sedang berjalan")
+                .register(meterRegistry);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.prerenderPool = new ThreadPoolExecutor(prerenderThreads, prerenderThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "tiket-pdf-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> {
+                    // Antrean penuh: tiket akan di-render saat didownload
+                    prerenderSkipped.increment();
+                });
+    }
+
+    /**
+     * Jadwalkan render tiket di background, dipanggil setelah pembayaran lunas di-commit
+     */
+    public void prerender(Long transaksiId) {
+        prerenderPool.execute(() -> {
+            try {
+                generateTiketPdf(transaksiId);
+            } catch (Exception e) {
+                log.warn("Pre-render tiket PDF transaksi ID: {} gagal: {}", transaksiId, e.getMessage());
+            }
+        });
+    }
 
     public byte[] generateTiketPdf(Long transaksiId) throws IOException {
         try {
@@ -49,136 +134,116 @@ public class TiketPdfService {
                 throw new ResourceNotFoundException("Tiket tidak ditemukan untuk transaksi ID: " + transaksiId);
             }
 
-            // Create PDF document using OpenPDF
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
-            Document document = new Document(PageSize.A4, 50, 50, 50, 50);
-            PdfWriter.getInstance(document, baos);
-
-            document.open();
-
-            // Set font
-            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 18, Font.BOLD);
-            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Font.BOLD);
-            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 10, Font.NORMAL);
-            Font smallFont = FontFactory.getFont(FontFactory.HELVETICA, 8, Font.NORMAL);
-
-            // Header Tiket
-            Paragraph header = new Paragraph("TIKET BIOSKOP", titleFont);
-            header.setAlignment(Element.ALIGN_CENTER);
-            header.setSpacingAfter(20);
-            document.add(header);
-
-            // Border line
-            addLineSeparator(document);
-
-            // Informasi Transaksi
-            Paragraph transaksiInfo = new Paragraph("INFORMASI TRANSAKSI", headerFont);
-            transaksiInfo.setSpacingAfter(10);
-            document.add(transaksiInfo);
-
-            PdfPTable transaksiTable = new PdfPTable(2);
-            transaksiTable.setWidthPercentage(100);
-            transaksiTable.setWidths(new float[]{1, 2});
-            transaksiTable.setSpacingAfter(15);
-
-            addTableRow(transaksiTable, "Kode Pembayaran:", transaksi.getKodePembayaran(), normalFont);
-            addTableRow(transaksiTable, "Tanggal Transaksi:", transaksi.getCreatedAt().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm")), normalFont);
-            addTableRow(transaksiTable, "Status:", transaksi.getStatus().name(), normalFont);
-            addTableRow(transaksiTable, "Metode Pembayaran:", transaksi.getMetodePembayaran(), normalFont);
-            addTableRow(transaksiTable, "Total Harga:", "Rp " + transaksi.getTotalHarga(), normalFont);
-
-            document.add(transaksiTable);
-
-            // Informasi Jadwal
-            Paragraph jadwalInfo = new Paragraph("DETAIL FILM & JADWAL", headerFont);
-            jadwalInfo.setSpacingAfter(10);
-            document.add(jadwalInfo);
-
-            PdfPTable jadwalTable = new PdfPTable(2);
-            jadwalTable.setWidthPercentage(100);
-            jadwalTable.setWidths(new float[]{1, 2});
-            jadwalTable.setSpacingAfter(15);
-
-            addTableRow(jadwalTable, "Judul Film:", transaksi.getJadwal().getFilm().getJudul(), normalFont);
-            addTableRow(jadwalTable, "Genre:", transaksi.getJadwal().getFilm().getGenre(), normalFont);
-            addTableRow(jadwalTable, "Durasi:", transaksi.getJadwal().getFilm().getDurasi() + " menit", normalFont);
-            addTableRow(jadwalTable, "Bioskop:", transaksi.getJadwal().getBioskop().getNama(), normalFont);
-            addTableRow(jadwalTable, "Lokasi:", transaksi.getJadwal().getBioskop().getLokasi(), normalFont);
-            addTableRow(jadwalTable, "Tanggal:", transaksi.getJadwal().getTanggal().format(DateTimeFormatter.ofPattern("dd-MM-yyyy")), normalFont);
-            addTableRow(jadwalTable, "Jam:", transaksi.getJadwal().getJam().format(DateTimeFormatter.ofPattern("HH:mm")), normalFont);
-
-            document.add(jadwalTable);
-
-            // Detail Kursi
-            Paragraph kursiInfo = new Paragraph("KURSI YANG DIPESAN", headerFont);
-            kursiInfo.setSpacingAfter(10);
-            document.add(kursiInfo);
-
-            PdfPTable kursiTable = new PdfPTable(3);
-            kursiTable.setWidthPercentage(100);
-            kursiTable.setWidths(new float[]{2, 1, 2});
-            kursiTable.setSpacingAfter(15);
-
-            // Header tabel kursi
-            PdfPCell cell = new PdfPCell(new Phrase("Nomor Kursi", headerFont));
-            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            kursiTable.addCell(cell);
-
-            cell = new PdfPCell(new Phrase("Tipe", headerFont));
-            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            kursiTable.addCell(cell);
-
-            cell = new PdfPCell(new Phrase("Harga", headerFont));
-            cell.setHorizontalAlignment(Element.ALIGN_CENTER);
-            kursiTable.addCell(cell);
-
-            // Data kursi
-            for (Tiket tiket : tiketList) {
-                kursiTable.addCell(new Phrase(tiket.getKursi().getNomor(), normalFont));
-                kursiTable.addCell(new Phrase(tiket.getKursi().getTipe().name(), normalFont));
-                kursiTable.addCell(new Phrase("Rp " + tiket.getHarga(), normalFont));
+            // Tiket transaksi lunas tidak berubah, pakai hasil render sebelumnya jika datanya masih sama
+            String contentHash = contentHash(transaksi, tiketList);
+            byte[] cached = tiketPdfCache.get(transaksiId, contentHash);
+            if (cached != null) {
+                log.debug("Tiket PDF transaksi ID: {} diambil dari cache", transaksiId);
+                return cached;
             }
 
-            document.add(kursiTable);
-
-            // Footer
-            addLineSeparator(document);
+            return renderOnce(transaksi, tiketList, contentHash);
 
-            Paragraph footer = new Paragraph("Simpan tiket ini sebagai bukti pembayaran yang sah.\n" +
-                    "Tiket tidak dapat diuangkan kembali.\n" +
-                    "Terima kasih telah menggunakan layanan kami!", smallFont);
-            footer.setAlignment(Element.ALIGN_CENTER);
-            footer.setSpacingBefore(20);
-            document.add(footer);
+        } catch (Exception e) {
+            log.error("Error saat generate tiket PDF untuk transaksi ID {}: {}", transaksiId, e.getMessage(), e);
+            throw new IOException("Gagal generate tiket PDF", e);
+        }
+    }
 
-            document.close();
+    /**
+     * Render tiket dan simpan ke cache, atau tunggu hasil render yang sedang berjalan untuk transaksi yang sama
+     */
+    private byte[] renderOnce(Transaksi transaksi, List<Tiket> tiketList, String contentHash)
+            throws DocumentException, IOException {
+        Long transaksiId = transaksi.getId();
+        CompletableFuture<byte[]> mine = new CompletableFuture<>();
+        CompletableFuture<byte[]> running = inFlight.putIfAbsent(transaksiId, mine);
+        if (running != null) {
+            byte[] pdf = await(transaksiId, running);
+            if (pdf != null) {
+                return pdf;
+            }
+            // Render lain gagal atau terlalu lama, render sendiri
+            mine = null;
+        }
 
+        try {
+            byte[] pdf = render(transaksi, tiketList);
+            tiketPdfCache.put(transaksiId, contentHash, pdf);
+            if (mine != null) {
+                mine.complete(pdf);
+            }
             log.info("Berhasil generate tiket PDF untuk transaksi ID: {}", transaksiId);
-            return baos.toByteArray();
+            return pdf;
+        } catch (DocumentException | IOException | RuntimeException e) {
+            if (mine != null) {
+                mine.completeExceptionally(e);
+            }
+            throw e;
+        } finally {
+            if (mine != null) {
+                inFlight.remove(transaksiId, mine);
+            }
+        }
+    }
 
-        } catch (Exception e) {
-            log.error("Error saat generate tiket PDF untuk transaksi ID {}: {}", transaksiId, e.getMessage(), e);
-            throw new IOException("Gagal generate tiket PDF", e);
+    private byte[] await(Long transaksiId, CompletableFuture<byte[]> running) {
+        renderJoined.increment();
+        try {
+            return running.get(renderWaitMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Gagal menunggu render tiket PDF transaksi ID: {}: {}", transaksiId, e.getMessage());
+            return null;
         }
     }
 
-    private void addLineSeparator(Document document) throws DocumentException {
-        LineSeparator line = new LineSeparator();
-        line.setOffset(-5);
-        document.add(new Chunk(line));
-        document.add(new Chunk("\n"));
+    private byte[] render(Transaksi transaksi, List<Tiket> tiketList) throws DocumentException, IOException {
+        if (MODE_TEMPLATE.equals(renderMode) && templateRenderer.supports(tiketList)) {
+            return templateRenderer.render(transaksi, tiketList);
+        }
+        return builderRenderer.render(transaksi, tiketList);
     }
 
-    private void addTableRow(PdfPTable table, String label, String value, Font font) {
-        PdfPCell labelCell = new PdfPCell(new Phrase(label, font));
-        labelCell.setBorder(Rectangle.NO_BORDER);
-        labelCell.setPaddingBottom(5);
-        table.addCell(labelCell);
+    /**
+     * Hapus PDF tiket transaksi dari cache, dipanggil saat transaksi dibatalkan
+     */
+    public void invalidate(Long transaksiId) {
+        tiketPdfCache.invalidate(transaksiId);
+    }
+
+    /**
+     * Hash SHA-256 dari semua data yang dicetak di tiket
+     */
+    private String contentHash(Transaksi transaksi, List<Tiket> tiketList) throws NoSuchAlgorithmException {
+        StringBuilder content = new StringBuilder(LAYOUT_VERSION)
+                .append('|').append(renderMode)
+                .append('|').append(transaksi.getKodePembayaran())
+                .append('|').append(transaksi.getCreatedAt())
+                .append('|').append(transaksi.getStatus())
+                .append('|').append(transaksi.getMetodePembayaran())
+                .append('|').append(transaksi.getTotalHarga())
+                .append('|').append(transaksi.getJadwal().getFilm().getJudul())
+                .append('|').append(transaksi.getJadwal().getFilm().getGenre())
+                .append('|').append(transaksi.getJadwal().getFilm().getDurasi())
+                .append('|').append(transaksi.getJadwal().getBioskop().getNama())
+                .append('|').append(transaksi.getJadwal().getBioskop().getLokasi())
+                .append('|').append(transaksi.getJadwal().getTanggal())
+                .append('|').append(transaksi.getJadwal().getJam());
+        for (Tiket tiket : tiketList) {
+            content.append('|').append(tiket.getKursi().getNomor())
+                    .append(',').append(tiket.getKursi().getTipe())
+                    .append(',').append(tiket.getHarga());
+        }
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(content.toString().getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest, 0, 16);
+    }
 
-        PdfPCell valueCell = new PdfPCell(new Phrase(value, font));
-        valueCell.setBorder(Rectangle.NO_BORDER);
-        valueCell.setPaddingBottom(5);
-        table.addCell(valueCell);
+    @PreDestroy
+    public void shutdown() {
+        prerenderPool.shutdownNow();
     }
 
     public void exportTiketToPdf(Long transaksiId, HttpServletResponse response) throws IOException {
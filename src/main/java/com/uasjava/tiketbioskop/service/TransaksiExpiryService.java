@@ -0,0 +1,81 @@
+package com.uasjava.tiketbioskop.service;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.uasjava.tiketbioskop.dto.TransaksiStatusEventDTO;
+import com.uasjava.tiketbioskop.model.Transaksi;
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
+import com.uasjava.tiketbioskop.repository.TransaksiRepository;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
+import com.uasjava.tiketbioskop.service.inventory.SeatInventoryService;
+import com.uasjava.tiketbioskop.util.TransactionUtil;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pembatalan transaksi PENDING yang sudah melewati batas waktu pembayaran.
+ *
+ * Pembatalan dilakukan set-based: id yang kadaluarsa dikunci dengan SELECT ... FOR UPDATE SKIP LOCKED
+ * lalu statusnya diubah dengan satu UPDATE per chunk, tanpa memuat entity beserta relasinya.
+ * Setiap method mengembalikan id yang benar-benar dibatalkan untuk pelepasan kursi.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransaksiExpiryService {
+
+    private final TransaksiRepository transaksiRepository;
+    private final KursiReservasiRepository kursiReservasiRepository;
+    private final SeatInventoryService seatInventoryService;
+    private final SseBroadcaster sseBroadcaster;
+
+    /**
+     * Batalkan transaksi dalam batch yang masih PENDING dan sudah kadaluarsa.
+     * Transaksi yang sudah lunas atau belum kadaluarsa dilewati.
+     */
+    @Transactional
+    public List<Long> batalkanKadaluarsa(Collection<Long> transaksiIds) {
+        if (transaksiIds.isEmpty()) {
+            return List.of();
+        }
+        return batalkan(transaksiRepository.lockExpiredPendingIdsIn(transaksiIds, LocalDateTime.now()));
+    }
+
+    /**
+     * Batalkan satu chunk transaksi PENDING yang kadaluarsa sebelum waktu tertentu.
+     * Pemanggil mengulang sampai hasilnya lebih sedikit dari chunkSize.
+     */
+    @Transactional
+    public List<Long> batalkanChunkKadaluarsa(LocalDateTime now, int chunkSize) {
+        return batalkan(transaksiRepository.lockExpiredPendingIds(now, chunkSize));
+    }
+
+    private List<Long> batalkan(List<Long> expiredIds) {
+        if (expiredIds.isEmpty()) {
+            return List.of();
+        }
+
+        int updated = transaksiRepository.updateStatusByIdIn(expiredIds,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.DIBATALKAN);
+        kursiReservasiRepository.deleteByTransaksiIdIn(expiredIds);
+        log.debug("Membatalkan {} transaksi kadaluarsa: {}", updated, expiredIds);
+
+        // Baris sudah dikunci FOR UPDATE sehingga semua id di atas pasti ikut ter-update
+        TransactionUtil.afterCommit(() -> expiredIds.forEach(transaksiId -> {
+            seatInventoryService.releaseTransaksi(transaksiId);
+            sseBroadcaster.publish(SseBroadcaster.transaksiChannel(transaksiId), "status",
+                    TransaksiStatusEventDTO.builder()
+                            .transaksiId(transaksiId)
+                            .status(Transaksi.StatusTransaksi.DIBATALKAN)
+                            .timestamp(LocalDateTime.now())
+                            .build());
+        }));
+        return expiredIds;
+    }
+}
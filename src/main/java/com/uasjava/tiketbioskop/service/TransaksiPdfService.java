@@ -6,14 +6,22 @@ import com.uasjava.tiketbioskop.model.Transaksi;
 import com.uasjava.tiketbioskop.repository.TransaksiRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.LongConsumer;
+import java.util.stream.Stream;
 
 import com.lowagie.text.*;
 import com.lowagie.text.pdf.PdfWriter;
@@ -27,8 +35,15 @@ import java.awt.Color;
 @Slf4j
 public class TransaksiPdfService {
 
+    private static final String[] LAPORAN_HEADERS = {"Username", "Film", "Metode Bayar", "Total Harga", "Status", "Waktu Transaksi"};
+    private static final DateTimeFormatter WAKTU_FORMAT = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+
     private final TransaksiRepository transaksiRepository;
 
+    // Jumlah baris tabel yang dikumpulkan sebelum ditulis ke dokumen
+    @Value("${app.laporan.pdf-chunk-rows:500}")
+    private int chunkRows;
+
     public byte[] generateLaporanPdf() throws IOException {
         try {
             log.info("Memulai generate laporan PDF transaksi");
@@ -129,6 +144,119 @@ public class TransaksiPdfService {
         }
     }
 
+    /**
+     * Tulis laporan transaksi langsung ke output stream.
+     *
+     * Baris dibaca dari stream JPA maju satu arah dan tabel ditulis ke dokumen per chunk
+     * ({@code setComplete(false)}), sehingga halaman yang sudah penuh langsung dikirim ke klien
+     * dan memori tidak bertambah mengikuti jumlah transaksi. Rentang tanggal bersifat inklusif
+     * dan boleh dikosongkan. Mengembalikan jumlah transaksi yang ditulis.
+     */
+    @Transactional(readOnly = true)
+    public long streamLaporanPdf(LocalDate dari, LocalDate sampai, OutputStream outputStream) throws IOException {
+        return streamLaporanPdf(dari, sampai, outputStream, jumlah -> { });
+    }
+
+    /**
+     * Sama seperti {@link #streamLaporanPdf(LocalDate, LocalDate, OutputStream)}, jumlah baris yang sudah
+     * ditulis dilaporkan ke {@code progress} setiap chunk. Jika thread di-interrupt proses berhenti
+     * dengan {@link CancellationException}.
+     */
+    @Transactional(readOnly = true)
+    public long streamLaporanPdf(LocalDate dari, LocalDate sampai, OutputStream outputStream, LongConsumer progress)
+            throws IOException {
+        if (dari != null && sampai != null && sampai.isBefore(dari)) {
+            throw new IllegalArgumentException("Tanggal akhir tidak boleh sebelum tanggal awal");
+        }
+        LocalDateTime dariWaktu = dari != null ? dari.atStartOfDay() : null;
+        LocalDateTime sampaiWaktu = sampai != null ? sampai.plusDays(1).atStartOfDay() : null;
+
+        Document document = new Document(PageSize.A4.rotate(), 50, 50, 50, 50);
+        long jumlah = 0;
+        try (Stream<TransaksiRepository.LaporanTransaksiRow> rows = transaksiRepository.streamLaporan(dariWaktu, sampaiWaktu)) {
+            PdfWriter.getInstance(document, outputStream);
+            document.open();
+
+            Font titleFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 20, Font.BOLD);
+            Font headerFont = FontFactory.getFont(FontFactory.HELVETICA_BOLD, 12, Font.BOLD);
+            Font normalFont = FontFactory.getFont(FontFactory.HELVETICA, 9, Font.NORMAL);
+
+            Paragraph title = new Paragraph("LAPORAN TRANSAKSI TIKET BIOSKOP", titleFont);
+            title.setAlignment(Element.ALIGN_CENTER);
+            title.setSpacingAfter(20);
+            document.add(title);
+
+            String periode = (dari != null ? dari.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")) : "awal") + " s/d " +
+                    (sampai != null ? sampai.format(DateTimeFormatter.ofPattern("dd-MM-yyyy")) : "sekarang");
+            Paragraph dateInfo = new Paragraph("Periode: " + periode + "\nGenerated at: " +
+                    LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm:ss")), normalFont);
+            dateInfo.setAlignment(Element.ALIGN_CENTER);
+            dateInfo.setSpacingAfter(20);
+            document.add(dateInfo);
+
+            PdfPTable table = new PdfPTable(6);
+            table.setWidthPercentage(100);
+            table.setWidths(new float[]{2, 3, 2, 2, 2, 3});
+            table.setSpacingAfter(20);
+            // Header diulang di setiap halaman, tabel ditulis bertahap
+            table.setHeaderRows(1);
+            table.setComplete(false);
+
+            for (String header : LAPORAN_HEADERS) {
+                PdfPCell headerCell = new PdfPCell(new Phrase(header, headerFont));
+                headerCell.setHorizontalAlignment(Element.ALIGN_CENTER);
+                headerCell.setBackgroundColor(new Color(220, 220, 220));
+                headerCell.setPadding(8);
+                table.addCell(headerCell);
+            }
+
+            Iterator<TransaksiRepository.LaporanTransaksiRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                TransaksiRepository.LaporanTransaksiRow row = iterator.next();
+                table.addCell(new Phrase(row.getUsername(), normalFont));
+                table.addCell(new Phrase(truncateString(row.getJudul(), 25), normalFont));
+                table.addCell(new Phrase(truncateString(row.getMetodePembayaran(), 12), normalFont));
+                table.addCell(new Phrase("Rp " + row.getTotalHarga(), normalFont));
+                table.addCell(new Phrase(row.getStatus() != null ? row.getStatus().name() : "", normalFont));
+                table.addCell(new Phrase(row.getCreatedAt() != null ? row.getCreatedAt().format(WAKTU_FORMAT) : "", normalFont));
+
+                if (++jumlah % chunkRows == 0) {
+                    // Baris yang sudah ditambahkan ke dokumen dibuang dari tabel
+                    document.add(table);
+                    outputStream.flush();
+                    progress.accept(jumlah);
+                    if (Thread.currentThread().isInterrupted()) {
+                        throw new CancellationException("Laporan PDF dibatalkan");
+                    }
+                }
+            }
+
+            table.setComplete(true);
+            document.add(table);
+
+            Paragraph summary = new Paragraph("Total Transaksi: " + jumlah + " items", headerFont);
+            summary.setSpacingBefore(15);
+            document.add(summary);
+        } catch (DocumentException e) {
+            log.error("Error saat streaming laporan PDF: {}", e.getMessage(), e);
+            throw new IOException("Gagal generate laporan PDF", e);
+        } finally {
+            if (document.isOpen()) {
+                document.close();
+            }
+        }
+
+        progress.accept(jumlah);
+        log.info("Berhasil streaming laporan PDF dengan {} transaksi", jumlah);
+        return jumlah;
+    }
+
+    @Transactional(readOnly = true)
+    public long countLaporan(LocalDate dari, LocalDate sampai) {
+        return transaksiRepository.countLaporan(dari != null ? dari.atStartOfDay() : null,
+                sampai != null ? sampai.plusDays(1).atStartOfDay() : null);
+    }
+
     private String truncateString(String str, int maxLength) {
         if (str == null) return "";
         return str.length() <= maxLength ? str : str.substring(0, maxLength - 2) + "..";
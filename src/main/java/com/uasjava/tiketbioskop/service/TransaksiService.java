@@ -4,12 +4,14 @@ import com.uasjava.tiketbioskop.dto.CheckoutRequestDTO;
 import com.uasjava.tiketbioskop.dto.CheckoutResponseDTO;
 import com.uasjava.tiketbioskop.dto.GenericResponse;
 import com.uasjava.tiketbioskop.dto.TransaksiDTO;
+import com.uasjava.tiketbioskop.dto.TransaksiStatusEventDTO;
 import org.springframework.data.domain.Page;
 
 public interface TransaksiService {
     CheckoutResponseDTO checkout(CheckoutRequestDTO request);
     boolean konfirmasiPembayaran(String kodePembayaran);
     GenericResponse<String> batalkanTransaksi(Long transaksiId);
+    TransaksiStatusEventDTO getMyTransactionStatus(Long transaksiId);
     Page<TransaksiDTO> getMyTransactions(int page, int size, String sortBy, String sortDir);
     Page<TransaksiDTO> filterMyTransactionsByStatus(String status, int page, int size, String sortBy, String sortDir);
     Page<TransaksiDTO> searchMyTransactions(String kodePembayaran, int page, int size, String sortBy, String sortDir);
@@ -16,13 +16,19 @@ public class AuthHelperService {
     private final UserRepository userRepository;
 
     public Users getCurrentUser() {
+        return userRepository.findByUsername(getCurrentUsername())
+                .orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    /**
+     * Username dari token JWT tanpa query ke database
+     */
+    public String getCurrentUsername() {
         Authentication auth = SecurityContextHolder.getContext().getAuthentication();
         if (auth == null || !(auth.getCredentials() instanceof UserCredentialsDto)) {
             throw new RuntimeException("User is not authenticated");
         }
 
-        UserCredentialsDto credentials = (UserCredentialsDto) auth.getCredentials();
-        return userRepository.findByUsername(credentials.getUsername())
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        return ((UserCredentialsDto) auth.getCredentials()).getUsername();
     }
 }
@@ -0,0 +1,253 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uasjava.tiketbioskop.model.IdempotencyRecord;
+import com.uasjava.tiketbioskop.repository.IdempotencyRecordRepository;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Penanganan header Idempotency-Key untuk endpoint yang tidak boleh dieksekusi dua kali.
+ *
+ * Response pertama untuk kombinasi username, endpoint, dan key disimpan di memori (dibatasi jumlah
+ * entri dan TTL) serta di tabel idempotency_record agar tetap berlaku setelah restart. Request ulang
+ * dengan key yang sama mendapat response tersimpan tanpa menjalankan ulang proses, dan request ulang
+ * yang datang saat request pertama masih diproses akan menunggu hasilnya.
+ * Hanya response 2xx dan penolakan bisnis yang pasti berulang (4xx selain 408, 409 dan 429) yang disimpan.
+ * Kegagalan sementara seperti 5xx dan 503 saat lock jadwal sibuk tidak disimpan sehingga klien yang
+ * mencoba lagi dengan key yang sama diproses ulang.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final AuthHelperService authHelperService;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final int maxEntries;
+    private final long waitMillis;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              AuthHelperService authHelperService,
+                              ObjectMapper objectMapper,
+                              @Value("${app.idempotency.ttl-minutes:1440}") long ttlMinutes,
+                              @Value("${app.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${app.idempotency.wait-ms:10000}") long waitMillis) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.authHelperService = authHelperService;
+        this.objectMapper = objectMapper;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.maxEntries = maxEntries;
+        this.waitMillis = waitMillis;
+    }
+
+    /**
+     * Jalankan aksi satu kali per Idempotency-Key. Tanpa key, aksi langsung dijalankan.
+     */
+    public <T> ResponseEntity<T> execute(String key, String endpoint, Object request,
+                                         TypeReference<T> bodyType, Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key maksimal " + MAX_KEY_LENGTH + " karakter");
+        }
+
+        String scopeKey = authHelperService.getCurrentUsername() + ":" + endpoint + ":" + key;
+        String fingerprint = fingerprint(request);
+        LocalDateTime now = LocalDateTime.now();
+
+        Entry own = new Entry(fingerprint, now.plus(ttl));
+        Entry existing = register(scopeKey, own, now);
+        if (existing != null) {
+            if (!existing.fingerprint.equals(fingerprint)) {
+                throw mismatch();
+            }
+            return replay(await(existing), fingerprint, bodyType);
+        }
+
+        try {
+            Optional<IdempotencyRecord> saved = idempotencyRecordRepository.findByScopeKey(scopeKey)
+                    .filter(r -> r.getExpiresAt().isAfter(now));
+            if (saved.isPresent()) {
+                Stored stored = new Stored(saved.get().getFingerprint(), saved.get().getStatusCode(),
+                        saved.get().getResponseBody());
+                own.result.complete(stored);
+                return replay(stored, fingerprint, bodyType);
+            }
+
+            ResponseEntity<T> response = action.get();
+            Stored stored = new Stored(fingerprint, response.getStatusCode().value(), toJson(response.getBody()));
+            if (isStorable(stored.statusCode)) {
+                persist(scopeKey, stored, now);
+            } else {
+                entries.remove(scopeKey, own);
+            }
+            own.result.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            entries.remove(scopeKey, own);
+            own.result.completeExceptionally(e);
+            throw e;
+        }
+    }
+
+    /**
+     * Response yang hasilnya akan sama jika diulang. 408, 409 dan 429 menandakan konflik atau beban
+     * sesaat, dan 5xx (termasuk 503 lock sibuk) kegagalan sementara.
+     */
+    static boolean isStorable(int statusCode) {
+        if (statusCode >= 200 && statusCode < 300) {
+            return true;
+        }
+        return statusCode >= 400 && statusCode < 500
+                && statusCode != HttpStatus.REQUEST_TIMEOUT.value()
+                && statusCode != HttpStatus.CONFLICT.value()
+                && statusCode != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * Daftarkan entri milik request ini, atau kembalikan entri lain yang masih berlaku untuk key yang sama
+     */
+    private Entry register(String scopeKey, Entry own, LocalDateTime now) {
+        if (entries.size() >= maxEntries) {
+            purgeExpiredEntries(now);
+        }
+        Entry[] existing = new Entry[1];
+        entries.compute(scopeKey, (k, current) -> {
+            if (current != null && current.expiresAt.isAfter(now)) {
+                existing[0] = current;
+                return current;
+            }
+            // Store memori penuh, request tetap diproses dan hanya dilindungi tabel database
+            return entries.size() >= maxEntries ? null : own;
+        });
+        return existing[0];
+    }
+
+    private Stored await(Entry entry) {
+        try {
+            return entry.result.get(waitMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Request dengan Idempotency-Key yang sama masih diproses");
+        } catch (ExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Request dengan Idempotency-Key yang sama gagal, silakan coba lagi");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Menunggu request idempotent terputus", e);
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(Stored stored, String fingerprint, TypeReference<T> bodyType) {
+        if (!stored.fingerprint.equals(fingerprint)) {
+            throw mismatch();
+        }
+        try {
+            T body = stored.body == null ? null : objectMapper.readValue(stored.body, bodyType);
+            return ResponseEntity.status(stored.statusCode).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response idempotent tersimpan tidak valid", e);
+        }
+    }
+
+    private ResponseStatusException mismatch() {
+        return new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key sudah dipakai untuk request dengan isi berbeda");
+    }
+
+    private void persist(String scopeKey, Stored stored, LocalDateTime now) {
+        try {
+            idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .scopeKey(scopeKey)
+                    .fingerprint(stored.fingerprint)
+                    .statusCode(stored.statusCode)
+                    .responseBody(stored.body)
+                    .createdAt(now)
+                    .expiresAt(now.plus(ttl))
+                    .build());
+        } catch (DataIntegrityViolationException e) {
+            // Instance lain sudah menyimpan key yang sama
+            log.warn("Idempotency-Key {} sudah tersimpan sebelumnya", scopeKey);
+        }
+    }
+
+    @Scheduled(fixedRate = 600000) // tiap 10 menit buang key yang sudah kadaluarsa
+    public void bersihkanKadaluarsa() {
+        LocalDateTime now = LocalDateTime.now();
+        purgeExpiredEntries(now);
+        int deleted = idempotencyRecordRepository.deleteExpired(now);
+        if (deleted > 0) {
+            log.info("Menghapus {} Idempotency-Key yang sudah kadaluarsa", deleted);
+        }
+    }
+
+    private void purgeExpiredEntries(LocalDateTime now) {
+        entries.values().removeIf(entry -> entry.result.isDone() && !entry.expiresAt.isAfter(now));
+    }
+
+    private String fingerprint(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    toJson(request).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Gagal mengubah data ke JSON", e);
+        }
+    }
+
+    private static final class Entry {
+        private final String fingerprint;
+        private final LocalDateTime expiresAt;
+        private final CompletableFuture<Stored> result = new CompletableFuture<>();
+
+        private Entry(String fingerprint, LocalDateTime expiresAt) {
+            this.fingerprint = fingerprint;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    private record Stored(String fingerprint, int statusCode, String body) {
+    }
+}
@@ -0,0 +1,165 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uasjava.tiketbioskop.service.EmailService;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Antrean notifikasi email login yang berjalan di luar thread request.
+ *
+ * Login pertama seorang user membuat notifikasi yang dikirim setelah jendela coalescing berakhir.
+ * Login berikutnya dalam jendela yang sama hanya memperbarui notifikasi tersebut, sehingga user
+ * menerima satu email berisi token terakhir dan jumlah login. Jumlah notifikasi yang menunggu
+ * dibatasi, notifikasi baru dibuang (dan dihitung di metric) saat antrean penuh.
+ */
+@Component
+@Slf4j
+public class LoginNotificationQueue {
+
+    private final EmailService emailService;
+    private final long windowMillis;
+    private final int capacity;
+    private final ScheduledThreadPoolExecutor senderPool;
+    private final Map<Integer, Notice> pending = new ConcurrentHashMap<>();
+
+    private final Counter sent;
+    private final Counter coalesced;
+    private final Counter dropped;
+    private final Counter failed;
+
+    public LoginNotificationQueue(EmailService emailService,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.login-notification.window-ms:30000}") long windowMillis,
+                                  @Value("${app.login-notification.capacity:1000}") int capacity,
+                                  @Value("${app.login-notification.sender-threads:2}") int senderThreads) {
+        this.emailService = emailService;
+        this.windowMillis = windowMillis;
+        this.capacity = capacity;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.senderPool = new ScheduledThreadPoolExecutor(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "login-mail-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.senderPool.setRemoveOnCancelPolicy(true);
+
+        this.sent = Counter.builder("tiketbioskop.login.notification.sent")
+                .description("Jumlah email notifikasi login yang terkirim")
+                .register(meterRegistry);
+        this.coalesced = Counter.builder("tiketbioskop.login.notification.coalesced")
+                .description("Jumlah login yang digabung ke notifikasi yang sedang menunggu")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tiketbioskop.login.notification.dropped")
+                .description("Jumlah notifikasi login yang dibuang karena antrean penuh")
+                .register(meterRegistry);
+        this.failed = Counter.builder("tiketbioskop.login.notification.failed")
+                .description("Jumlah notifikasi login yang gagal dikirim")
+                .register(meterRegistry);
+        Gauge.builder("tiketbioskop.login.notification.pending", pending, Map::size)
+                .description("Jumlah notifikasi login yang menunggu dikirim")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Catat login berhasil, tidak pernah menunggu pengiriman email
+     */
+    public void submit(int userId, String username, String email, String accessToken, Date expiresAt) {
+        // 0 = dibuang, 1 = notifikasi baru, 2 = digabung ke notifikasi yang menunggu
+        int[] hasil = new int[1];
+        pending.compute(userId, (id, notice) -> {
+            if (notice != null) {
+                notice.update(accessToken, expiresAt);
+                hasil[0] = 2;
+                return notice;
+            }
+            if (pending.size() >= capacity) {
+                return null;
+            }
+            hasil[0] = 1;
+            return new Notice(username, email, accessToken, expiresAt);
+        });
+
+        switch (hasil[0]) {
+            case 1 -> senderPool.schedule(() -> send(userId), windowMillis, TimeUnit.MILLISECONDS);
+            case 2 -> coalesced.increment();
+            default -> {
+                dropped.increment();
+                log.warn("Antrean notifikasi login penuh, notifikasi untuk user {} dibuang", username);
+            }
+        }
+    }
+
+    private void send(int userId) {
+        Notice notice = pending.remove(userId);
+        if (notice == null) {
+            return;
+        }
+
+        String loginInfo;
+        String token;
+        Date expiresAt;
+        synchronized (notice) {
+            loginInfo = notice.loginCount > 1
+                    ? "Kamu berhasil login ke sistem Tiket Bioskop sebanyak " + notice.loginCount + " kali dalam beberapa saat terakhir.\n\n"
+                    : "Kamu berhasil login ke sistem Tiket Bioskop.\n\n";
+            token = notice.accessToken;
+            expiresAt = notice.expiresAt;
+        }
+
+        String subject = "Login Berhasil - Tiket Bioskop";
+        String body = "Halo " + notice.username + ",\n\n" +
+                loginInfo +
+                "Berikut adalah token aksesmu (jangan dibagikan kepada siapa pun):\n\n" +
+                token + "\n\n" +
+                "Token akan expired pada: " + expiresAt + "\n\n" +
+                "Salam,\nTiket Bioskop";
+        try {
+            emailService.sendEmail(notice.email, subject, body);
+            sent.increment();
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("Gagal mengirim notifikasi login untuk user {}: {}", notice.username, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senderPool.shutdownNow();
+    }
+
+    private static final class Notice {
+        private final String username;
+        private final String email;
+        private String accessToken;
+        private Date expiresAt;
+        private int loginCount = 1;
+
+        private Notice(String username, String email, String accessToken, Date expiresAt) {
+            this.username = username;
+            this.email = email;
+            this.accessToken = accessToken;
+            this.expiresAt = expiresAt;
+        }
+
+        private synchronized void update(String accessToken, Date expiresAt) {
+            this.accessToken = accessToken;
+            this.expiresAt = expiresAt;
+            this.loginCount++;
+        }
+    }
+}
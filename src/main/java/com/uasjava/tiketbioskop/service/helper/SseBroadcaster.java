@@ -0,0 +1,265 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter.DataWithMediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Broadcaster Server-Sent Events untuk klien yang tidak bisa memakai WebSocket.
+ *
+ * Koneksi dikelompokkan per channel (misalnya "jadwal:1" atau "transaksi:5"). Event yang dipublikasikan
+ * dibangun sekali lalu dimasukkan ke antrean, lalu flusher terjadwal membagikannya ke antrean tiap koneksi.
+ * Pengiriman ke socket dilakukan oleh pool thread tersendiri, satu tugas per koneksi yang antreannya berisi,
+ * sehingga klien yang lambat tidak menahan flusher maupun klien lain. Koneksi yang antreannya penuh atau
+ * pengirimannya melewati batas waktu diputus. Flusher yang sama mengirim heartbeat berkala untuk mendeteksi
+ * koneksi yang sudah putus.
+ */
+@Component
+@Slf4j
+public class SseBroadcaster {
+
+    private static final long HEARTBEAT_MILLIS = 15000;
+
+    private final long timeoutMillis;
+    private final long sendTimeoutMillis;
+    private final int clientQueueCapacity;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ThreadPoolExecutor sendPool;
+
+    private final Object monitor = new Object();
+    private Map<String, Queue<Set<DataWithMediaType>>> pending = new HashMap<>();
+    private long lastHeartbeat = System.currentTimeMillis();
+
+    public SseBroadcaster(@Value("${app.sse.timeout-ms:1800000}") long timeoutMillis,
+                          @Value("${app.sse.send-timeout-ms:5000}") long sendTimeoutMillis,
+                          @Value("${app.sse.client-queue-capacity:256}") int clientQueueCapacity,
+                          @Value("${app.sse.send-threads:4}") int sendThreads,
+                          @Value("${app.sse.send-queue-capacity:10000}") int sendQueueCapacity) {
+        this.timeoutMillis = timeoutMillis;
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.clientQueueCapacity = clientQueueCapacity;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.sendPool = new ThreadPoolExecutor(sendThreads, sendThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(sendQueueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "sse-send-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, (runnable, executor) -> {
+                    throw new RejectedExecutionException("Antrean pengiriman SSE penuh");
+                });
+    }
+
+    /**
+     * Daftarkan koneksi baru ke channel lalu kirim event awal (boleh null) ke koneksi ini saja.
+     * Koneksi didaftarkan sebelum event awal dihitung, sehingga perubahan yang terjadi di antaranya
+     * tetap diterima setelah event awal, tidak ada yang hilang.
+     */
+    public SseEmitter subscribe(String channel, String initialEventName, Supplier<?> initialData) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(channel, emitter);
+        // Tahan pengiriman event channel sampai event awal terkirim
+        subscriber.draining.set(true);
+        subscribers.computeIfAbsent(channel, key -> new CopyOnWriteArraySet<>()).add(subscriber);
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        try {
+            Object data = initialData.get();
+            if (data != null) {
+                emitter.send(SseEmitter.event().name(initialEventName).data(data));
+            }
+        } catch (IOException e) {
+            log.debug("Koneksi SSE channel {} terputus sebelum event awal terkirim: {}", channel, e.getMessage());
+            subscriber.close();
+        } catch (RuntimeException e) {
+            unsubscribe(subscriber);
+            throw e;
+        }
+
+        subscriber.draining.set(false);
+        subscriber.schedule();
+        return emitter;
+    }
+
+    /**
+     * Masukkan event ke antrean channel, dikirim pada putaran flusher berikutnya
+     */
+    public void publish(String channel, String eventName, Object data) {
+        if (!subscribers.containsKey(channel)) {
+            return;
+        }
+        synchronized (monitor) {
+            pending.computeIfAbsent(channel, key -> new ArrayDeque<>())
+                    .add(SseEmitter.event().name(eventName).data(data).build());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.sse.flush-interval-ms:100}")
+    public void flush() {
+        Map<String, Queue<Set<DataWithMediaType>>> batch;
+        synchronized (monitor) {
+            batch = pending;
+            pending = new HashMap<>();
+        }
+
+        batch.forEach((channel, events) -> {
+            Set<Subscriber> channelSubscribers = subscribers.get(channel);
+            if (channelSubscribers == null) {
+                return;
+            }
+            for (Set<DataWithMediaType> event : events) {
+                channelSubscribers.forEach(subscriber -> subscriber.offer(event));
+            }
+        });
+
+        long now = System.currentTimeMillis();
+        subscribers.forEach((channel, channelSubscribers) -> channelSubscribers.forEach(subscriber -> {
+            long sendingSince = subscriber.sendingSince;
+            if (sendingSince != 0 && now - sendingSince > sendTimeoutMillis) {
+                log.warn("Pengiriman SSE channel {} melewati {} ms, koneksi diputus", channel, sendTimeoutMillis);
+                subscriber.close();
+            }
+        }));
+
+        if (now - lastHeartbeat >= HEARTBEAT_MILLIS) {
+            lastHeartbeat = now;
+            Set<DataWithMediaType> heartbeat = SseEmitter.event().comment("heartbeat").build();
+            subscribers.forEach((channel, channelSubscribers) ->
+                    channelSubscribers.forEach(subscriber -> subscriber.offer(heartbeat)));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sendPool.shutdownNow();
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.channel, (key, channelSubscribers) -> {
+            channelSubscribers.remove(subscriber);
+            return channelSubscribers.isEmpty() ? null : channelSubscribers;
+        });
+    }
+
+    public static String jadwalChannel(Long jadwalId) {
+        return "jadwal:" + jadwalId;
+    }
+
+    public static String transaksiChannel(Long transaksiId) {
+        return "transaksi:" + transaksiId;
+    }
+
+    /**
+     * Satu koneksi SSE beserta antrean event-nya. Paling banyak satu tugas pengiriman per koneksi
+     * yang berjalan (ditandai draining), sehingga urutan event terjaga.
+     */
+    private final class Subscriber {
+
+        private final String channel;
+        private final SseEmitter emitter;
+        private final Queue<Set<DataWithMediaType>> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile long sendingSince;
+        private volatile boolean closed;
+
+        private Subscriber(String channel, SseEmitter emitter) {
+            this.channel = channel;
+            this.emitter = emitter;
+        }
+
+        private void offer(Set<DataWithMediaType> event) {
+            if (closed) {
+                return;
+            }
+            if (queued.incrementAndGet() > clientQueueCapacity) {
+                log.warn("Antrean SSE channel {} penuh ({} event), koneksi diputus", channel, clientQueueCapacity);
+                close();
+                return;
+            }
+            queue.add(event);
+            schedule();
+        }
+
+        /**
+         * Jalankan tugas pengiriman jika ada event dan belum ada tugas yang berjalan. Koneksi yang sudah
+         * ditutup di-complete di sini, tidak pernah saat pengiriman lain masih memegang emitter.
+         */
+        private void schedule() {
+            if ((queue.isEmpty() && !closed) || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            if (closed) {
+                // draining dibiarkan true agar complete hanya dipanggil sekali
+                emitter.complete();
+                return;
+            }
+            try {
+                sendPool.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // Dicoba lagi saat event berikutnya atau heartbeat masuk
+                draining.set(false);
+            }
+        }
+
+        private void drain() {
+            try {
+                Set<DataWithMediaType> event;
+                while (!closed && (event = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    sendingSince = System.currentTimeMillis();
+                    emitter.send(event);
+                    sendingSince = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                // Klien sudah menutup koneksi
+                log.debug("Koneksi SSE channel {} terputus: {}", channel, e.getMessage());
+                close();
+            } finally {
+                sendingSince = 0;
+                draining.set(false);
+            }
+            // Event yang masuk saat tugas ini berjalan, atau complete jika koneksi sudah ditutup
+            schedule();
+        }
+
+        /**
+         * Putus koneksi: berhenti menerima event dan buang antrean. Jika pengiriman masih tertahan,
+         * emitter di-complete oleh tugas pengiriman itu setelah socket melepasnya.
+         */
+        private void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            unsubscribe(this);
+            queue.clear();
+            schedule();
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Cache PDF tiket per transaksi.
+ *
+ * Tingkat pertama adalah LRU di memori yang dibatasi total ukuran byte, tingkat kedua file di disk
+ * dengan nama {@code <transaksiId>-<hash>.pdf}. Hash dihitung dari seluruh data yang dicetak di tiket,
+ * sehingga perubahan data otomatis membuat entri lama tidak terpakai. Entri untuk satu transaksi
+ * dihapus saat transaksi dibatalkan, dan render yang selesai setelahnya tidak ditulis lagi.
+ *
+ * File di disk dibersihkan berkala: file yang tidak dipakai lebih lama dari TTL dihapus, lalu file yang
+ * paling lama tidak dipakai dihapus sampai total ukuran di bawah batas. Waktu modifikasi file diperbarui
+ * setiap kali dibaca sehingga dipakai sebagai waktu akses terakhir.
+ */
+@Component
+@Slf4j
+public class TiketPdfCache {
+
+    // File sementara yang tertinggal (misalnya proses mati saat menulis) dianggap sampah setelah umur ini
+    private static final Duration TEMP_MAX_AGE = Duration.ofHours(1);
+
+    private final Path directory;
+    private final long maxMemoryBytes;
+    private final long maxDiskBytes;
+    private final Duration diskTtl;
+    private final LinkedHashMap<Long, Entry> memory = new LinkedHashMap<>(64, 0.75f, true);
+    private long memoryBytes;
+    private volatile long diskBytes;
+    // Transaksi yang sudah di-invalidate beserta waktunya, agar render yang masih berjalan tidak menulis ulang
+    private final Map<Long, Long> invalidated = new ConcurrentHashMap<>();
+
+    private final Counter memoryHits;
+    private final Counter diskHits;
+    private final Counter misses;
+
+    public TiketPdfCache(MeterRegistry meterRegistry,
+                         @Value("${app.tiket-pdf.cache-dir:${java.io.tmpdir}/tiketbioskop/tiket-pdf}") String directory,
+                         @Value("${app.tiket-pdf.cache-memory-bytes:33554432}") long maxMemoryBytes,
+                         @Value("${app.tiket-pdf.cache-disk-bytes:1073741824}") long maxDiskBytes,
+                         @Value("${app.tiket-pdf.cache-disk-ttl-hours:168}") long diskTtlHours) throws IOException {
+        this.directory = Paths.get(directory);
+        this.maxMemoryBytes = maxMemoryBytes;
+        this.maxDiskBytes = maxDiskBytes;
+        this.diskTtl = Duration.ofHours(diskTtlHours);
+        Files.createDirectories(this.directory);
+
+        this.memoryHits = Counter.builder("tiketbioskop.tiket.pdf.cache")
+                .tag("result", "memory")
+                .description("Akses cache PDF tiket")
+                .register(meterRegistry);
+        this.diskHits = Counter.builder("tiketbioskop.tiket.pdf.cache")
+                .tag("result", "disk")
+                .description("Akses cache PDF tiket")
+                .register(meterRegistry);
+        this.misses = Counter.builder("tiketbioskop.tiket.pdf.cache")
+                .tag("result", "miss")
+                .description("Akses cache PDF tiket")
+                .register(meterRegistry);
+        Gauge.builder("tiketbioskop.tiket.pdf.cache.memory.bytes", this, TiketPdfCache::memoryBytes)
+                .description("Total ukuran PDF tiket di cache memori")
+                .register(meterRegistry);
+        Gauge.builder("tiketbioskop.tiket.pdf.cache.disk.bytes", this, cache -> cache.diskBytes)
+                .description("Total ukuran PDF tiket di cache disk saat pembersihan terakhir")
+                .register(meterRegistry);
+
+        log.info("Cache PDF tiket di {} dengan batas memori {} byte dan disk {} byte", this.directory,
+                maxMemoryBytes, maxDiskBytes);
+    }
+
+    /**
+     * Ambil PDF dari memori atau disk, null jika belum ada untuk hash ini
+     */
+    public byte[] get(Long transaksiId, String hash) {
+        synchronized (memory) {
+            Entry entry = memory.get(transaksiId);
+            if (entry != null && entry.hash().equals(hash)) {
+                memoryHits.increment();
+                return entry.pdf();
+            }
+        }
+
+        Path file = fileOf(transaksiId, hash);
+        if (Files.isRegularFile(file)) {
+            try {
+                byte[] pdf = Files.readAllBytes(file);
+                Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+                putMemory(transaksiId, hash, pdf);
+                diskHits.increment();
+                return pdf;
+            } catch (IOException e) {
+                log.warn("Gagal membaca cache PDF tiket {}: {}", file, e.getMessage());
+            }
+        }
+
+        misses.increment();
+        return null;
+    }
+
+    public void put(Long transaksiId, String hash, byte[] pdf) {
+        if (invalidated.containsKey(transaksiId)) {
+            log.debug("PDF tiket transaksi ID: {} tidak disimpan karena sudah di-invalidate", transaksiId);
+            return;
+        }
+        putMemory(transaksiId, hash, pdf);
+
+        Path file = fileOf(transaksiId, hash);
+        try {
+            // Tulis ke file sementara lalu rename agar pembaca tidak pernah melihat file setengah jadi
+            Path temp = Files.createTempFile(directory, transaksiId + "-", ".tmp");
+            Files.write(temp, pdf);
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            deleteFiles(transaksiId, file);
+        } catch (IOException e) {
+            log.warn("Gagal menyimpan cache PDF tiket transaksi ID: {}: {}", transaksiId, e.getMessage());
+        }
+    }
+
+    /**
+     * Hapus semua versi PDF tiket milik transaksi dari memori dan disk
+     */
+    public void invalidate(Long transaksiId) {
+        invalidated.put(transaksiId, System.currentTimeMillis());
+        synchronized (memory) {
+            Entry removed = memory.remove(transaksiId);
+            if (removed != null) {
+                memoryBytes -= removed.pdf().length;
+            }
+        }
+        deleteFiles(transaksiId, null);
+    }
+
+    /**
+     * Hapus file yang melewati TTL dan file sementara yang tertinggal, lalu file yang paling lama tidak
+     * dipakai sampai total ukuran cache disk di bawah batas
+     */
+    @Scheduled(fixedDelayString = "${app.tiket-pdf.cache-cleanup-ms:600000}")
+    public void bersihkanDisk() {
+        long now = System.currentTimeMillis();
+        invalidated.values().removeIf(at -> now - at > TEMP_MAX_AGE.toMillis());
+
+        List<CachedFile> files = new ArrayList<>();
+        int dihapus = 0;
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*.{pdf,tmp}")) {
+            for (Path file : stream) {
+                long lastModified = Files.getLastModifiedTime(file).toMillis();
+                boolean temp = file.getFileName().toString().endsWith(".tmp");
+                long maxAge = temp ? TEMP_MAX_AGE.toMillis() : diskTtl.toMillis();
+                if (now - lastModified > maxAge) {
+                    dihapus += Files.deleteIfExists(file) ? 1 : 0;
+                } else if (!temp) {
+                    files.add(new CachedFile(file, lastModified, Files.size(file)));
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Gagal membersihkan cache PDF tiket di {}: {}", directory, e.getMessage());
+            return;
+        }
+
+        long total = files.stream().mapToLong(CachedFile::size).sum();
+        files.sort(Comparator.comparingLong(CachedFile::lastModified));
+        for (CachedFile file : files) {
+            if (total <= maxDiskBytes) {
+                break;
+            }
+            try {
+                if (Files.deleteIfExists(file.path())) {
+                    dihapus++;
+                }
+                total -= file.size();
+            } catch (IOException e) {
+                log.warn("Gagal menghapus cache PDF tiket {}: {}", file.path(), e.getMessage());
+            }
+        }
+        diskBytes = total;
+        if (dihapus > 0) {
+            log.info("Membersihkan {} file cache PDF tiket, tersisa {} byte", dihapus, total);
+        }
+    }
+
+    private void putMemory(Long transaksiId, String hash, byte[] pdf) {
+        if (pdf.length > maxMemoryBytes) {
+            return;
+        }
+        synchronized (memory) {
+            Entry previous = memory.put(transaksiId, new Entry(hash, pdf));
+            if (previous != null) {
+                memoryBytes -= previous.pdf().length;
+            }
+            memoryBytes += pdf.length;
+
+            Iterator<Map.Entry<Long, Entry>> eldest = memory.entrySet().iterator();
+            while (memoryBytes > maxMemoryBytes && eldest.hasNext()) {
+                memoryBytes -= eldest.next().getValue().pdf().length;
+                eldest.remove();
+            }
+        }
+    }
+
+    private void deleteFiles(Long transaksiId, Path keep) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, transaksiId + "-*.pdf")) {
+            for (Path file : files) {
+                if (!file.equals(keep)) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Gagal menghapus cache PDF tiket transaksi ID: {}: {}", transaksiId, e.getMessage());
+        }
+    }
+
+    private Path fileOf(Long transaksiId, String hash) {
+        return directory.resolve(transaksiId + "-" + hash + ".pdf");
+    }
+
+    private long memoryBytes() {
+        synchronized (memory) {
+            return memoryBytes;
+        }
+    }
+
+    private record Entry(String hash, byte[] pdf) {
+    }
+
+    private record CachedFile(Path path, long lastModified, long size) {
+    }
+}
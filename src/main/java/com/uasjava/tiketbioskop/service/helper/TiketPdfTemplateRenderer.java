@@ -0,0 +1,226 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+import org.springframework.stereotype.Component;
+
+import com.lowagie.text.Document;
+import com.lowagie.text.DocumentException;
+import com.lowagie.text.Element;
+import com.lowagie.text.PageSize;
+import com.lowagie.text.pdf.BaseFont;
+import com.lowagie.text.pdf.PdfContentByte;
+import com.lowagie.text.pdf.PdfReader;
+import com.lowagie.text.pdf.PdfStamper;
+import com.lowagie.text.pdf.PdfWriter;
+import com.uasjava.tiketbioskop.model.Jadwal;
+import com.uasjava.tiketbioskop.model.Tiket;
+import com.uasjava.tiketbioskop.model.Transaksi;
+
+/**
+ * Render PDF tiket dengan template yang dibangun sekali.
+ *
+ * Bagian statis tiket (judul, garis, judul bagian, label, header tabel kursi, footer) digambar sekali
+ * saat aplikasi start di posisi tetap. Setiap render hanya membuka template tersebut dengan
+ * {@link PdfStamper} dan menuliskan nilai transaksi, jadwal, dan baris kursi di atasnya.
+ * Transaksi dengan kursi lebih dari {@link #MAX_KURSI} tidak muat di template dan harus
+ * di-render dengan {@link TiketPdfBuilderRenderer}.
+ */
+@Component
+public class TiketPdfTemplateRenderer {
+
+    public static final int MAX_KURSI = 10;
+
+    private static final float LEFT = 50;
+    private static final float RIGHT = 545;
+    private static final float CENTER = (LEFT + RIGHT) / 2;
+    private static final float VALUE_X = LEFT + (RIGHT - LEFT) / 3;
+    private static final float ROW_STEP = 16;
+
+    private static final float TITLE_Y = 780;
+    private static final float TOP_LINE_Y = 760;
+    private static final float TRANSAKSI_TITLE_Y = 738;
+    private static final float TRANSAKSI_FIRST_ROW_Y = 718;
+    private static final float JADWAL_TITLE_Y = 624;
+    private static final float JADWAL_FIRST_ROW_Y = 604;
+    private static final float KURSI_TITLE_Y = 478;
+    private static final float KURSI_HEADER_TOP = 468;
+    private static final float KURSI_ROW_HEIGHT = 20;
+    private static final float FOOTER_LINE_Y = 230;
+    private static final float FOOTER_FIRST_Y = 210;
+
+    // Kolom tabel kursi dengan perbandingan lebar 2:1:2
+    private static final float[] KURSI_COLUMNS = { LEFT, LEFT + 198, LEFT + 297, RIGHT };
+
+    private static final String[] TRANSAKSI_LABELS = {
+            "Kode Pembayaran:", "Tanggal Transaksi:", "Status:", "Metode Pembayaran:", "Total Harga:" };
+    private static final String[] JADWAL_LABELS = {
+            "Judul Film:", "Genre:", "Durasi:", "Bioskop:", "Lokasi:", "Tanggal:", "Jam:" };
+    private static final String[] KURSI_HEADERS = { "Nomor Kursi", "Tipe", "Harga" };
+    private static final String[] FOOTER_LINES = {
+            "Simpan tiket ini sebagai bukti pembayaran yang sah.",
+            "Tiket tidak dapat diuangkan kembali.",
+            "Terima kasih telah menggunakan layanan kami!" };
+
+    private static final DateTimeFormatter DATE_TIME = DateTimeFormatter.ofPattern("dd-MM-yyyy HH:mm");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("dd-MM-yyyy");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HH:mm");
+
+    private final BaseFont regular;
+    private final BaseFont bold;
+    private final byte[] template;
+
+    public TiketPdfTemplateRenderer() throws DocumentException, IOException {
+        this.regular = BaseFont.createFont(BaseFont.HELVETICA, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        this.bold = BaseFont.createFont(BaseFont.HELVETICA_BOLD, BaseFont.CP1252, BaseFont.NOT_EMBEDDED);
+        this.template = buildTemplate();
+    }
+
+    public boolean supports(List<Tiket> tiketList) {
+        return tiketList.size() <= MAX_KURSI;
+    }
+
+    public byte[] render(Transaksi transaksi, List<Tiket> tiketList) throws DocumentException, IOException {
+        if (!supports(tiketList)) {
+            throw new IllegalArgumentException("Template tiket hanya memuat maksimal " + MAX_KURSI + " kursi");
+        }
+
+        PdfReader reader = new PdfReader(template);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(template.length + 4096);
+        PdfStamper stamper = new PdfStamper(reader, baos);
+        PdfContentByte canvas = stamper.getOverContent(1);
+
+        // Garis tabel kursi mengikuti jumlah baris
+        float bottom = KURSI_HEADER_TOP - KURSI_ROW_HEIGHT * (tiketList.size() + 1);
+        canvas.setLineWidth(0.5f);
+        for (int row = 2; row <= tiketList.size() + 1; row++) {
+            float y = KURSI_HEADER_TOP - KURSI_ROW_HEIGHT * row;
+            canvas.moveTo(LEFT, y);
+            canvas.lineTo(RIGHT, y);
+        }
+        for (float x : KURSI_COLUMNS) {
+            canvas.moveTo(x, KURSI_HEADER_TOP - KURSI_ROW_HEIGHT);
+            canvas.lineTo(x, bottom);
+        }
+        canvas.stroke();
+
+        Jadwal jadwal = transaksi.getJadwal();
+        String[] transaksiValues = {
+                transaksi.getKodePembayaran(),
+                transaksi.getCreatedAt() != null ? transaksi.getCreatedAt().format(DATE_TIME) : "",
+                transaksi.getStatus().name(),
+                transaksi.getMetodePembayaran(),
+                "Rp " + transaksi.getTotalHarga() };
+        String[] jadwalValues = {
+                jadwal.getFilm().getJudul(),
+                jadwal.getFilm().getGenre(),
+                jadwal.getFilm().getDurasi() + " menit",
+                jadwal.getBioskop().getNama(),
+                jadwal.getBioskop().getLokasi(),
+                jadwal.getTanggal().format(DATE),
+                jadwal.getJam().format(TIME) };
+
+        canvas.beginText();
+        canvas.setFontAndSize(regular, 10);
+        float maxValueWidth = RIGHT - VALUE_X;
+        for (int i = 0; i < transaksiValues.length; i++) {
+            showText(canvas, Element.ALIGN_LEFT, fit(transaksiValues[i], maxValueWidth), VALUE_X,
+                    TRANSAKSI_FIRST_ROW_Y - ROW_STEP * i);
+        }
+        for (int i = 0; i < jadwalValues.length; i++) {
+            showText(canvas, Element.ALIGN_LEFT, fit(jadwalValues[i], maxValueWidth), VALUE_X,
+                    JADWAL_FIRST_ROW_Y - ROW_STEP * i);
+        }
+        for (int row = 0; row < tiketList.size(); row++) {
+            Tiket tiket = tiketList.get(row);
+            float y = KURSI_HEADER_TOP - KURSI_ROW_HEIGHT * (row + 2) + 6;
+            showText(canvas, Element.ALIGN_LEFT, tiket.getKursi().getNomor(), KURSI_COLUMNS[0] + 4, y);
+            showText(canvas, Element.ALIGN_LEFT, tiket.getKursi().getTipe().name(), KURSI_COLUMNS[1] + 4, y);
+            showText(canvas, Element.ALIGN_LEFT, "Rp " + tiket.getHarga(), KURSI_COLUMNS[2] + 4, y);
+        }
+        canvas.endText();
+
+        stamper.close();
+        reader.close();
+        return baos.toByteArray();
+    }
+
+    /**
+     * Gambar bagian statis tiket sekali, hasilnya dipakai ulang untuk setiap render
+     */
+    private byte[] buildTemplate() throws DocumentException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        Document document = new Document(PageSize.A4, 50, 50, 50, 50);
+        PdfWriter writer = PdfWriter.getInstance(document, baos);
+        document.open();
+
+        PdfContentByte canvas = writer.getDirectContent();
+        canvas.setLineWidth(0.5f);
+        canvas.moveTo(LEFT, TOP_LINE_Y);
+        canvas.lineTo(RIGHT, TOP_LINE_Y);
+        canvas.moveTo(LEFT, FOOTER_LINE_Y);
+        canvas.lineTo(RIGHT, FOOTER_LINE_Y);
+        // Kotak header tabel kursi
+        canvas.rectangle(LEFT, KURSI_HEADER_TOP - KURSI_ROW_HEIGHT, RIGHT - LEFT, KURSI_ROW_HEIGHT);
+        for (int i = 1; i < KURSI_COLUMNS.length - 1; i++) {
+            canvas.moveTo(KURSI_COLUMNS[i], KURSI_HEADER_TOP);
+            canvas.lineTo(KURSI_COLUMNS[i], KURSI_HEADER_TOP - KURSI_ROW_HEIGHT);
+        }
+        canvas.stroke();
+
+        canvas.beginText();
+        canvas.setFontAndSize(bold, 18);
+        showText(canvas, Element.ALIGN_CENTER, "TIKET BIOSKOP", CENTER, TITLE_Y);
+
+        canvas.setFontAndSize(bold, 12);
+        showText(canvas, Element.ALIGN_LEFT, "INFORMASI TRANSAKSI", LEFT, TRANSAKSI_TITLE_Y);
+        showText(canvas, Element.ALIGN_LEFT, "DETAIL FILM & JADWAL", LEFT, JADWAL_TITLE_Y);
+        showText(canvas, Element.ALIGN_LEFT, "KURSI YANG DIPESAN", LEFT, KURSI_TITLE_Y);
+        float headerY = KURSI_HEADER_TOP - KURSI_ROW_HEIGHT + 6;
+        for (int i = 0; i < KURSI_HEADERS.length; i++) {
+            float center = (KURSI_COLUMNS[i] + KURSI_COLUMNS[i + 1]) / 2;
+            showText(canvas, Element.ALIGN_CENTER, KURSI_HEADERS[i], center, headerY);
+        }
+
+        canvas.setFontAndSize(regular, 10);
+        for (int i = 0; i < TRANSAKSI_LABELS.length; i++) {
+            showText(canvas, Element.ALIGN_LEFT, TRANSAKSI_LABELS[i], LEFT, TRANSAKSI_FIRST_ROW_Y - ROW_STEP * i);
+        }
+        for (int i = 0; i < JADWAL_LABELS.length; i++) {
+            showText(canvas, Element.ALIGN_LEFT, JADWAL_LABELS[i], LEFT, JADWAL_FIRST_ROW_Y - ROW_STEP * i);
+        }
+
+        canvas.setFontAndSize(regular, 8);
+        for (int i = 0; i < FOOTER_LINES.length; i++) {
+            showText(canvas, Element.ALIGN_CENTER, FOOTER_LINES[i], CENTER, FOOTER_FIRST_Y - 10 * i);
+        }
+        canvas.endText();
+
+        // Halaman hanya berisi direct content, tandai tidak kosong agar tetap ditulis
+        writer.setPageEmpty(false);
+        document.close();
+        return baos.toByteArray();
+    }
+
+    private void showText(PdfContentByte canvas, int align, String text, float x, float y) {
+        canvas.showTextAligned(align, text != null ? text : "", x, y, 0);
+    }
+
+    /**
+     * Potong teks yang melebihi lebar kolom nilai dan tambahkan elipsis
+     */
+    private String fit(String text, float maxWidth) {
+        if (text == null || regular.getWidthPoint(text, 10) <= maxWidth) {
+            return text;
+        }
+        String ellipsis = "...";
+        int end = text.length();
+        while (end > 0 && regular.getWidthPoint(text.substring(0, end) + ellipsis, 10) > maxWidth) {
+            end--;
+        }
+        return text.substring(0, end) + ellipsis;
+    }
+}
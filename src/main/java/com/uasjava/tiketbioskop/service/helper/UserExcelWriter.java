@@ -0,0 +1,160 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.IntFunction;
+import java.util.function.LongConsumer;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.FillPatternType;
+import org.apache.poi.ss.usermodel.Font;
+import org.apache.poi.ss.usermodel.IndexedColors;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uasjava.tiketbioskop.repository.UserRepository.UserExportRow;
+
+/**
+ * Menulis data user ke Excel secara streaming dengan {@link SXSSFWorkbook}.
+ *
+ * Hanya {@code windowSize} baris terakhir yang disimpan di memori, baris lain langsung dibuang ke
+ * file sementara. Lebar kolom dihitung dari halaman pertama sebagai sampel, bukan dengan
+ * autoSizeColumn yang harus membaca semua baris.
+ */
+@Component
+public class UserExcelWriter {
+
+    private static final String[] COLUMNS = { "ID", "USERNAME", "EMAIL", "NOMOR", "TANGGAL LAHIR", "STATUS", "TERDAFTAR", "TERAKHIR LOGIN" };
+    private static final int MAX_COLUMN_CHARS = 60;
+
+    private final int windowSize;
+
+    public UserExcelWriter(@Value("${app.laporan.excel-window-rows:200}") int windowSize) {
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Tulis semua user ke output stream.
+     *
+     * @param pageLoader mengembalikan halaman berikutnya untuk user dengan id lebih besar dari argumen,
+     *                   list kosong jika sudah habis
+     * @return jumlah baris data yang ditulis
+     */
+    public long write(OutputStream outputStream, IntFunction<List<? extends UserExportRow>> pageLoader) throws IOException {
+        return write(outputStream, pageLoader, jumlah -> { });
+    }
+
+    /**
+     * Sama seperti {@link #write(OutputStream, IntFunction)}, jumlah baris yang sudah ditulis dilaporkan
+     * ke {@code progress} setiap halaman. Jika thread di-interrupt proses berhenti dengan
+     * {@link CancellationException}.
+     */
+    public long write(OutputStream outputStream, IntFunction<List<? extends UserExportRow>> pageLoader,
+                      LongConsumer progress) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(windowSize);
+        workbook.setCompressTempFiles(true);
+        try {
+            SXSSFSheet sheet = workbook.createSheet("DATA USER & ADMIN");
+
+            CellStyle headerStyle = workbook.createCellStyle();
+            headerStyle.setFillForegroundColor(IndexedColors.LIGHT_BLUE.getIndex());
+            headerStyle.setFillPattern(FillPatternType.SOLID_FOREGROUND);
+            Font headerFont = workbook.createFont();
+            headerFont.setFontName("Arial");
+            headerFont.setFontHeightInPoints((short) 12);
+            headerFont.setBold(true);
+            headerFont.setColor(IndexedColors.WHITE.getIndex());
+            headerStyle.setFont(headerFont);
+
+            CellStyle bodyStyle = workbook.createCellStyle();
+            Font bodyFont = workbook.createFont();
+            bodyFont.setFontName("Calibri");
+            bodyFont.setFontHeightInPoints((short) 11);
+            bodyStyle.setFont(bodyFont);
+
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < COLUMNS.length; i++) {
+                Cell cell = headerRow.createCell(i);
+                cell.setCellValue(COLUMNS[i]);
+                cell.setCellStyle(headerStyle);
+            }
+
+            List<? extends UserExportRow> page = pageLoader.apply(0);
+            applyColumnWidths(sheet, page);
+
+            int rowIndex = 1;
+            while (!page.isEmpty()) {
+                for (UserExportRow user : page) {
+                    writeRow(sheet.createRow(rowIndex++), user, bodyStyle);
+                }
+                progress.accept(rowIndex - 1L);
+                if (Thread.currentThread().isInterrupted()) {
+                    throw new CancellationException("Export Excel dibatalkan");
+                }
+                page = pageLoader.apply(page.get(page.size() - 1).getId());
+            }
+
+            workbook.write(outputStream);
+            return rowIndex - 1L;
+        } finally {
+            // Hapus file sementara SXSSF
+            workbook.dispose();
+            workbook.close();
+        }
+    }
+
+    private void writeRow(Row row, UserExportRow user, CellStyle style) {
+        String[] values = values(user);
+        Cell idCell = row.createCell(0);
+        idCell.setCellValue(user.getId());
+        idCell.setCellStyle(style);
+        for (int i = 1; i < values.length; i++) {
+            if (values[i] == null) {
+                continue;
+            }
+            Cell cell = row.createCell(i);
+            cell.setCellValue(values[i]);
+            cell.setCellStyle(style);
+        }
+    }
+
+    private String[] values(UserExportRow user) {
+        return new String[] {
+                String.valueOf(user.getId()),
+                user.getUsername(),
+                user.getEmail(),
+                user.getNomor(),
+                user.getTanggalLahir() != null ? user.getTanggalLahir().toString() : null,
+                Boolean.TRUE.equals(user.getStatus()) ? "Aktif" : "Tidak Aktif",
+                user.getCreatedAt() != null ? user.getCreatedAt().toString() : null,
+                user.getLastLogin() != null ? user.getLastLogin().toString() : null
+        };
+    }
+
+    /**
+     * Lebar kolom dari panjang teks terpanjang di header dan sampel baris
+     */
+    private void applyColumnWidths(SXSSFSheet sheet, List<? extends UserExportRow> sample) {
+        int[] maxChars = new int[COLUMNS.length];
+        for (int i = 0; i < COLUMNS.length; i++) {
+            maxChars[i] = COLUMNS[i].length();
+        }
+        for (UserExportRow user : sample) {
+            String[] values = values(user);
+            for (int i = 0; i < values.length; i++) {
+                if (values[i] != null) {
+                    maxChars[i] = Math.max(maxChars[i], values[i].length());
+                }
+            }
+        }
+        for (int i = 0; i < COLUMNS.length; i++) {
+            sheet.setColumnWidth(i, (Math.min(maxChars[i], MAX_COLUMN_CHARS) + 3) * 256);
+        }
+    }
+}
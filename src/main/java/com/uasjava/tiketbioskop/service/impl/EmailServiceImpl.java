@@ -1,8 +1,16 @@
 package com.uasjava.tiketbioskop.service.impl;
 
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -13,6 +21,7 @@ import org.thymeleaf.context.Context;
 import com.uasjava.tiketbioskop.service.EmailService;
 
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.AddressException;
 import jakarta.mail.internet.MimeMessage;
 
 @Service
@@ -71,24 +80,7 @@ public class EmailServiceImpl implements EmailService {
                 return;
             }
 
-            MimeMessage message = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            if (context == null) {
-                context = new Context();
-            }
-
-            // Tambahkan informasi aplikasi ke context
-            context.setVariable("appName", appName);
-            context.setVariable("currentYear", java.time.LocalDate.now().getYear());
-
-            String html = templateEngine.process(templateName, context);
-
-            helper.setFrom(fromEmail);
-            helper.setTo(to);
-            helper.setSubject(subject != null ? subject : "Konfirmasi Pembayaran");
-            helper.setText(html, true);
-
+            MimeMessage message = buildPaymentMessage(to, subject, templateName, context);
             javaMailSender.send(message);
             log.info("Email pembayaran berhasil dikirim ke: {}", to);
 
@@ -101,6 +93,123 @@ public class EmailServiceImpl implements EmailService {
         }
     }
 
+    @Override
+    public Map<Integer, Exception> sendPaymentEmailBatch(List<PaymentEmail> emails) {
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        Map<MimeMessage, Integer> indexByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+
+        for (int i = 0; i < emails.size(); i++) {
+            PaymentEmail email = emails.get(i);
+            if (!isValidEmail(email.to())) {
+                log.warn("Email pembayaran tidak dikirim karena format email tidak valid: {}", email.to());
+                failures.put(i, invalidAddress(email.to()));
+                continue;
+            }
+            try {
+                MimeMessage message = buildPaymentMessage(email.to(), email.subject(), email.templateName(), email.context());
+                indexByMessage.put(message, i);
+                messages.add(message);
+            } catch (Exception e) {
+                log.error("Gagal menyusun email pembayaran ke {}: {}", email.to(), e.getMessage(), e);
+                failures.put(i, e);
+            }
+        }
+
+        sendBatch(messages, indexByMessage, failures);
+        log.info("Batch email pembayaran: {} terkirim, {} gagal", emails.size() - failures.size(), failures.size());
+        return failures;
+    }
+
+    @Override
+    public Map<Integer, Exception> sendHtmlEmailBatch(List<HtmlEmail> emails) {
+        Map<Integer, Exception> failures = new LinkedHashMap<>();
+        Map<MimeMessage, Integer> indexByMessage = new IdentityHashMap<>();
+        List<MimeMessage> messages = new ArrayList<>(emails.size());
+
+        for (int i = 0; i < emails.size(); i++) {
+            HtmlEmail email = emails.get(i);
+            if (!isValidEmail(email.to())) {
+                log.warn("Email tidak dikirim karena format email tidak valid: {}", email.to());
+                failures.put(i, invalidAddress(email.to()));
+                continue;
+            }
+            try {
+                MimeMessage message = javaMailSender.createMimeMessage();
+                MimeMessageHelper helper = new MimeMessageHelper(message, false, "UTF-8");
+                helper.setFrom(fromEmail);
+                helper.setTo(email.to());
+                helper.setSubject(email.subject() != null ? email.subject() : "Notifikasi");
+                helper.setText(email.html(), true);
+                indexByMessage.put(message, i);
+                messages.add(message);
+            } catch (Exception e) {
+                failures.put(i, e);
+            }
+        }
+
+        sendBatch(messages, indexByMessage, failures);
+        return failures;
+    }
+
+    /**
+     * Kegagalan untuk alamat yang formatnya salah, tidak akan berhasil walaupun dicoba lagi
+     */
+    private static AddressException invalidAddress(String to) {
+        return new AddressException("Format alamat email tidak valid", to);
+    }
+
+    /**
+     * Kirim semua pesan dalam satu pemanggilan dan petakan kegagalan kembali ke index asal
+     */
+    private void sendBatch(List<MimeMessage> messages, Map<MimeMessage, Integer> indexByMessage,
+                           Map<Integer, Exception> failures) {
+        if (messages.isEmpty()) {
+            return;
+        }
+
+        try {
+            javaMailSender.send(messages.toArray(new MimeMessage[0]));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                indexByMessage.values().forEach(index -> failures.put(index, e));
+            } else {
+                e.getFailedMessages().forEach((message, error) -> {
+                    Integer index = indexByMessage.get(message);
+                    if (index != null) {
+                        failures.put(index, error);
+                    }
+                });
+            }
+        } catch (MailException e) {
+            // Gagal untuk seluruh batch, misalnya autentikasi SMTP ditolak
+            log.error("Gagal mengirim batch {} email: {}", messages.size(), e.getMessage());
+            indexByMessage.values().forEach(index -> failures.put(index, e));
+        }
+    }
+
+    private MimeMessage buildPaymentMessage(String to, String subject, String templateName, Context context)
+            throws MessagingException {
+        MimeMessage message = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+
+        if (context == null) {
+            context = new Context();
+        }
+
+        // Tambahkan informasi aplikasi ke context
+        context.setVariable("appName", appName);
+        context.setVariable("currentYear", java.time.LocalDate.now().getYear());
+
+        String html = templateEngine.process(templateName, context);
+
+        helper.setFrom(fromEmail);
+        helper.setTo(to);
+        helper.setSubject(subject != null ? subject : "Konfirmasi Pembayaran");
+        helper.setText(html, true);
+        return message;
+    }
+
     /**
      * Validasi format email sederhana
      */
@@ -3,15 +3,24 @@ package com.uasjava.tiketbioskop.service.impl;
 import com.uasjava.tiketbioskop.dto.FilmResponseDTO;
 import com.uasjava.tiketbioskop.exception.ResourceNotFoundException;
 import com.uasjava.tiketbioskop.model.Film;
+import com.uasjava.tiketbioskop.model.FilmPoster;
+import com.uasjava.tiketbioskop.repository.FilmPosterRepository;
 import com.uasjava.tiketbioskop.repository.FilmRepository;
 import com.uasjava.tiketbioskop.service.FilmService;
+import com.uasjava.tiketbioskop.service.PosterStorageService;
+import com.uasjava.tiketbioskop.service.PosterStorageService.UkuranPoster;
 import com.uasjava.tiketbioskop.util.ImageUtils;
+import com.uasjava.tiketbioskop.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
@@ -20,12 +29,16 @@ import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class FilmServiceImpl implements FilmService {
 
     @Autowired
     private final FilmRepository filmRepository;
+    private final FilmPosterRepository filmPosterRepository;
+    private final PosterStorageService posterStorageService;
 
     @Override
+    @Transactional
     public Film saveFilm(String judul, String genre, int durasi, String sinopsis, String cast,
                         MultipartFile poster, String trailerUrl, Film.StatusFilm status) throws IOException {
         Film film = Film.builder()
@@ -34,12 +47,14 @@ public class FilmServiceImpl implements FilmService {
                 .durasi(durasi)
                 .sinopsis(sinopsis)
                 .cast(cast)
-                .poster(ImageUtils.compressImage(poster.getBytes()))
+                .posterHash(PosterStorageService.hash(poster.getBytes()))
                 .trailerUrl(trailerUrl)
                 .status(status != null ? status : Film.StatusFilm.TAYANG)
                 .build();
 
-        return filmRepository.save(film);
+        Film savedFilm = filmRepository.save(film);
+        savePoster(savedFilm.getId(), poster.getBytes());
+        return savedFilm;
     }
 
     @Override
@@ -47,12 +62,12 @@ public class FilmServiceImpl implements FilmService {
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         PageRequest pageRequest = PageRequest.of(page, size, sort);
-        return filmRepository.findAll(pageRequest).map(this::toDto);
+        return filmRepository.findListBy(pageRequest).map(this::toDto);
     }
 
     @Override
     public List<FilmResponseDTO> getAllFilms() {
-        return filmRepository.findAll().stream().map(this::toDto).collect(Collectors.toList());
+        return filmRepository.findAllListItems().stream().map(this::toDto).collect(Collectors.toList());
     }
 
     @Override
@@ -63,6 +78,7 @@ public class FilmServiceImpl implements FilmService {
     }
 
     @Override
+    @Transactional
     public FilmResponseDTO updateFilm(Long id, String judul, String genre, int durasi, String sinopsis,
                                      String cast, String trailerUrl, Film.StatusFilm status,
                                      MultipartFile poster) throws IOException {
@@ -77,15 +93,19 @@ public class FilmServiceImpl implements FilmService {
         film.setStatus(status);
 
         if (poster != null && !poster.isEmpty()) {
-            film.setPoster(ImageUtils.compressImage(poster.getBytes()));
+            film.setPosterHash(PosterStorageService.hash(poster.getBytes()));
+            savePoster(id, poster.getBytes());
         }
 
         return toDto(filmRepository.save(film));
     }
 
     @Override
+    @Transactional
     public void deleteFilm(Long id) {
+        filmPosterRepository.deleteById(id);
         filmRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> posterStorageService.delete(id));
     }
 
     @Override
@@ -93,7 +113,7 @@ public class FilmServiceImpl implements FilmService {
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         PageRequest pageRequest = PageRequest.of(page, size, sort);
-        return filmRepository.findByGenreIgnoreCase(genre, pageRequest).map(this::toDto);
+        return filmRepository.findListByGenre(genre, pageRequest).map(this::toDto);
     }
 
     @Override
@@ -101,7 +121,7 @@ public class FilmServiceImpl implements FilmService {
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         PageRequest pageRequest = PageRequest.of(page, size, sort);
-        return filmRepository.findByJudulContainingIgnoreCase(title, pageRequest).map(this::toDto);
+        return filmRepository.findListByJudul(title, pageRequest).map(this::toDto);
     }
 
     @Override
@@ -109,7 +129,7 @@ public class FilmServiceImpl implements FilmService {
         Sort sort = sortDir.equalsIgnoreCase("desc") ?
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         PageRequest pageRequest = PageRequest.of(page, size, sort);
-        return filmRepository.findByStatus(status, pageRequest).map(this::toDto);
+        return filmRepository.findListByStatus(status, pageRequest).map(this::toDto);
     }
 
     @Override
@@ -120,46 +140,58 @@ public class FilmServiceImpl implements FilmService {
                 Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
         PageRequest pageRequest = PageRequest.of(page, size, sort);
 
-        // Build specification for advanced search
-        org.springframework.data.jpa.domain.Specification<Film> spec = (root, query, criteriaBuilder) -> {
-            var predicates = new java.util.ArrayList<jakarta.persistence.criteria.Predicate>();
-
-            if (judul != null && !judul.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("judul")),
-                    "%" + judul.toLowerCase() + "%"));
-            }
-
-            if (genre != null && !genre.trim().isEmpty()) {
-                predicates.add(criteriaBuilder.like(criteriaBuilder.lower(root.get("genre")),
-                    "%" + genre.toLowerCase() + "%"));
-            }
-
-            if (status != null) {
-                predicates.add(criteriaBuilder.equal(root.get("status"), status));
-            }
-
-            if (minDurasi != null) {
-                predicates.add(criteriaBuilder.greaterThanOrEqualTo(root.get("durasi"), minDurasi));
-            }
-
-            if (maxDurasi != null) {
-                predicates.add(criteriaBuilder.lessThanOrEqualTo(root.get("durasi"), maxDurasi));
-            }
-
-            return criteriaBuilder.and(predicates.toArray(new jakarta.persistence.criteria.Predicate[0]));
-        };
-
-        return filmRepository.findAll(spec, pageRequest).map(this::toDto);
+        String judulFilter = judul != null && !judul.trim().isEmpty() ? judul : null;
+        String genreFilter = genre != null && !genre.trim().isEmpty() ? genre : null;
+        return filmRepository.advancedSearch(judulFilter, genreFilter, status, minDurasi, maxDurasi, pageRequest)
+                .map(this::toDto);
     }
 
     @Override
     public List<FilmResponseDTO> getFilmsByGenre(String genre) {
-        List<Film> films = filmRepository.findByGenreIgnoreCase(genre);
+        List<FilmRepository.FilmListItem> films = filmRepository.findListByGenre(genre);
         return films.stream()
                 .map(this::toDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Isi hash poster untuk film yang diunggah sebelum kolom poster_hash ada
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPosterHash() {
+        List<Long> filmIds = filmPosterRepository.findFilmIdsWithoutPosterHash();
+        if (filmIds.isEmpty()) {
+            return;
+        }
+        for (Long filmId : filmIds) {
+            try {
+                byte[] poster = ImageUtils.decompressImage(filmPosterRepository.findDataByFilmId(filmId));
+                if (poster != null) {
+                    filmRepository.updatePosterHash(filmId, PosterStorageService.hash(poster));
+                }
+            } catch (IllegalArgumentException e) {
+                log.error("Poster film ID: {} tidak bisa dibaca: {}", filmId, e.getMessage());
+            }
+        }
+        log.info("Hash poster diisi untuk {} film", filmIds.size());
+    }
+
+    private void savePoster(Long filmId, byte[] image) {
+        filmPosterRepository.save(FilmPoster.builder()
+                .filmId(filmId)
+                .data(ImageUtils.compressImage(image))
+                .build());
+
+        // File poster di disk ditulis setelah commit, jika gagal akan ditulis ulang dari database saat diminta
+        TransactionUtil.afterCommit(() -> {
+            try {
+                posterStorageService.store(filmId, image);
+            } catch (IOException e) {
+                log.warn("Gagal menyimpan file poster film ID: {}: {}", filmId, e.getMessage());
+            }
+        });
+    }
+
     private FilmResponseDTO toDto(Film film) {
         FilmResponseDTO dto = new FilmResponseDTO();
         dto.setId(film.getId());
@@ -170,17 +202,31 @@ public class FilmServiceImpl implements FilmService {
         dto.setCast(film.getCast());
         dto.setTrailerUrl(film.getTrailerUrl());
         dto.setStatus(film.getStatus());
-        if (film.getPoster() != null) {
-            try {
-                dto.setPoster(ImageUtils.decompressImage(film.getPoster()));
-            } catch (Exception e) {
-                // Log error and set poster to null if decompression fails
-                System.err.println("Failed to decompress poster for film " + film.getId() + ": " + e.getMessage());
-                dto.setPoster(null);
-            }
-        } else {
-            dto.setPoster(null);
-        }
+        dto.setPosterUrl(posterUrl(film.getId(), film.getPosterHash(), UkuranPoster.ORIGINAL));
+        dto.setPosterThumbUrl(posterUrl(film.getId(), film.getPosterHash(), UkuranPoster.THUMB));
+        return dto;
+    }
+
+    private FilmResponseDTO toDto(FilmRepository.FilmListItem film) {
+        FilmResponseDTO dto = new FilmResponseDTO();
+        dto.setId(film.getId());
+        dto.setJudul(film.getJudul());
+        dto.setGenre(film.getGenre());
+        dto.setDurasi(film.getDurasi());
+        dto.setSinopsis(film.getSinopsis());
+        dto.setCast(film.getCast());
+        dto.setTrailerUrl(film.getTrailerUrl());
+        dto.setStatus(film.getStatus());
+        dto.setPosterUrl(posterUrl(film.getId(), film.getPosterHash(), UkuranPoster.ORIGINAL));
+        dto.setPosterThumbUrl(posterUrl(film.getId(), film.getPosterHash(), UkuranPoster.THUMB));
         return dto;
     }
-}
\ No newline at end of file
+
+    private static String posterUrl(Long filmId, String posterHash, UkuranPoster ukuran) {
+        if (posterHash == null) {
+            return null;
+        }
+        String url = "/all/film/" + filmId + "/poster?v=" + posterHash;
+        return ukuran == UkuranPoster.ORIGINAL ? url : url + "&size=" + ukuran.getParam();
+    }
+}
@@ -4,6 +4,8 @@ import com.uasjava.tiketbioskop.dto.*;
 import com.uasjava.tiketbioskop.model.*;
 import com.uasjava.tiketbioskop.repository.*;
 import com.uasjava.tiketbioskop.service.*;
+import com.uasjava.tiketbioskop.service.inventory.SeatInventoryService;
+import com.uasjava.tiketbioskop.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
@@ -25,6 +27,7 @@ public class JadwalServiceImpl implements JadwalService {
     private final FilmRepository filmRepository;
     private final BioskopRepository bioskopRepository;
     private final ModelMapper modelMapper;
+    private final SeatInventoryService seatInventoryService;
 
     @Override
     @Transactional
@@ -134,6 +137,7 @@ public class JadwalServiceImpl implements JadwalService {
         existingJadwal.setJam(dto.getJam());
 
         Jadwal updatedJadwal = jadwalRepository.save(existingJadwal);
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictJadwal(id));
         log.info("Jadwal berhasil diupdate dengan ID: {}", updatedJadwal.getId());
 
         return modelMapper.map(updatedJadwal, JadwalDTO.class);
@@ -152,6 +156,7 @@ public class JadwalServiceImpl implements JadwalService {
         // Untuk sementara, langsung hapus saja
 
         jadwalRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictJadwal(id));
         log.info("Jadwal berhasil dihapus dengan ID: {}", id);
     }
 
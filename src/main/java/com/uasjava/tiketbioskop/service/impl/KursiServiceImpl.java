@@ -1,19 +1,24 @@
 package com.uasjava.tiketbioskop.service.impl;
 
 import com.uasjava.tiketbioskop.dto.*;
+import com.uasjava.tiketbioskop.exception.ResourceNotFoundException;
 import com.uasjava.tiketbioskop.model.*;
 import com.uasjava.tiketbioskop.repository.*;
 import com.uasjava.tiketbioskop.service.*;
+import com.uasjava.tiketbioskop.service.inventory.SeatInventoryService;
+import com.uasjava.tiketbioskop.util.TransactionUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.modelmapper.ModelMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Optional;
 
 @Service
 @RequiredArgsConstructor
@@ -22,7 +27,9 @@ import java.util.NoSuchElementException;
 public class KursiServiceImpl implements KursiService {
     private final KursiRepository kursiRepository;
     private final BioskopRepository bioskopRepository;
+    private final JadwalRepository jadwalRepository;
     private final ModelMapper modelMapper;
+    private final SeatInventoryService seatInventoryService;
 
     @Override
     @Transactional
@@ -61,6 +68,7 @@ public class KursiServiceImpl implements KursiService {
                 .build();
 
         Kursi savedKursi = kursiRepository.save(kursi);
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictBioskop(bioskop.getId()));
         log.info("Kursi berhasil dibuat dengan ID: {}", savedKursi.getId());
 
         return modelMapper.map(savedKursi, KursiDTO.class);
@@ -99,11 +107,15 @@ public class KursiServiceImpl implements KursiService {
             throw new IllegalArgumentException("Nomor kursi sudah ada di bioskop ini: " + dto.getNomor());
         }
 
+        Long bioskopLamaId = existingKursi.getBioskop().getId();
+
         existingKursi.setBioskop(bioskop);
         existingKursi.setNomor(dto.getNomor().trim().toUpperCase());
         existingKursi.setTipe(dto.getTipe());
 
         Kursi updatedKursi = kursiRepository.save(existingKursi);
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictBioskop(bioskopLamaId));
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictBioskop(bioskop.getId()));
         log.info("Kursi berhasil diupdate dengan ID: {}", updatedKursi.getId());
 
         return modelMapper.map(updatedKursi, KursiDTO.class);
@@ -122,6 +134,7 @@ public class KursiServiceImpl implements KursiService {
         // Untuk sementara, langsung hapus saja dengan asumsi tidak ada tiket aktif
 
         kursiRepository.deleteById(id);
+        TransactionUtil.afterCommit(() -> seatInventoryService.evictBioskop(kursi.getBioskop().getId()));
         log.info("Kursi berhasil dihapus dengan ID: {}", id);
     }
 
@@ -142,4 +155,21 @@ public class KursiServiceImpl implements KursiService {
         return kursiRepository.findAll(pageable)
                 .map(k -> modelMapper.map(k, KursiDTO.class));
     }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public SeatMapDTO getSeatMap(Long jadwalId) {
+        log.debug("Mengambil peta kursi untuk jadwal ID: {}", jadwalId);
+
+        // Polling jadwal yang petanya sudah di memori dijawab tanpa transaksi maupun query database
+        Optional<SeatMapDTO> cached = seatInventoryService.findSnapshot(jadwalId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+
+        Jadwal jadwal = jadwalRepository.findById(jadwalId)
+                .orElseThrow(() -> new ResourceNotFoundException("Jadwal", "id", jadwalId));
+
+        return seatInventoryService.getSnapshot(jadwal);
+    }
 }
@@ -17,8 +17,8 @@ import com.uasjava.tiketbioskop.model.Users;
 import com.uasjava.tiketbioskop.provider.JwtProvider;
 import com.uasjava.tiketbioskop.repository.UserRepository;
 import com.uasjava.tiketbioskop.repository.UserRoleRepository;
-import com.uasjava.tiketbioskop.service.EmailService;
 import com.uasjava.tiketbioskop.service.LoginService;
+import com.uasjava.tiketbioskop.service.helper.LoginNotificationQueue;
 import com.uasjava.tiketbioskop.util.PasswordUtil;
 
 import lombok.RequiredArgsConstructor;
@@ -32,7 +32,7 @@ public class LoginServiceImpl implements LoginService {
     private final UserRepository usersRepository;
     private final UserRoleRepository userRoleRepository;
     private final JwtProvider jwtProvider;
-    private final EmailService emailService;
+    private final LoginNotificationQueue loginNotificationQueue;
 
     @Override
     public LoginResponseDto login(LoginDto dto) {
@@ -54,14 +54,9 @@ public class LoginServiceImpl implements LoginService {
                 // Hitung waktu expiration token
                 Date expirationDate = jwtProvider.getAllClaimsFromToken(accessToken).getExpiration();
 
-                String subject = "Login Berhasil - Tiket Bioskop";
-                String body = "Halo " + users.getUsername() + ",\n\n" +
-                        "Kamu berhasil login ke sistem Tiket Bioskop.\n\n" +
-                        "Berikut adalah token aksesmu (jangan dibagikan kepada siapa pun):\n\n" +
-                        accessToken + "\n\n" +
-                        "Token akan expired pada: " + expirationDate + "\n\n" +
-                        "Salam,\nTiket Bioskop";
-                emailService.sendEmail(users.getEmail(), subject, body);
+                // Notifikasi email dikirim async, login tidak menunggu server SMTP
+                loginNotificationQueue.submit(users.getId(), users.getUsername(), users.getEmail(),
+                        accessToken, expirationDate);
 
                 return LoginResponseDto.builder()
                         .accessToken(accessToken)
@@ -2,7 +2,9 @@ package com.uasjava.tiketbioskop.service.impl;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.function.LongConsumer;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
@@ -13,11 +15,14 @@ import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.xssf.usermodel.XSSFFont;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
 import com.uasjava.tiketbioskop.model.Users;
 import com.uasjava.tiketbioskop.repository.UserRepository;
 import com.uasjava.tiketbioskop.service.ReportService;
+import com.uasjava.tiketbioskop.service.helper.UserExcelWriter;
 
 import lombok.extern.slf4j.Slf4j;
 
@@ -26,9 +31,32 @@ import lombok.extern.slf4j.Slf4j;
 public class ReportServiceImpl implements ReportService {
 
     private final UserRepository usersRepository;
+    private final UserExcelWriter userExcelWriter;
 
-    public ReportServiceImpl(UserRepository usersRepository) {
+    @Value("${app.laporan.excel-page-size:1000}")
+    private int excelPageSize;
+
+    public ReportServiceImpl(UserRepository usersRepository, UserExcelWriter userExcelWriter) {
         this.usersRepository = usersRepository;
+        this.userExcelWriter = userExcelWriter;
+    }
+
+    @Override
+    public long streamExcel(OutputStream outputStream) throws IOException {
+        return streamExcel(outputStream, jumlah -> { });
+    }
+
+    @Override
+    public long streamExcel(OutputStream outputStream, LongConsumer progress) throws IOException {
+        long jumlah = userExcelWriter.write(outputStream,
+                afterId -> usersRepository.findExportRows(afterId, PageRequest.of(0, excelPageSize)), progress);
+        log.info("Berhasil export {} user ke Excel", jumlah);
+        return jumlah;
+    }
+
+    @Override
+    public long countUsers() {
+        return usersRepository.count();
     }
 
     @Override
@@ -4,33 +4,43 @@ import com.uasjava.tiketbioskop.dto.CheckoutRequestDTO;
 import com.uasjava.tiketbioskop.dto.CheckoutResponseDTO;
 import com.uasjava.tiketbioskop.dto.GenericResponse;
 import com.uasjava.tiketbioskop.dto.TransaksiDTO;
+import com.uasjava.tiketbioskop.dto.TransaksiStatusEventDTO;
 import com.uasjava.tiketbioskop.exception.KursiNotAvailableException;
 import com.uasjava.tiketbioskop.exception.ResourceNotFoundException;
 import com.uasjava.tiketbioskop.model.Jadwal;
 import com.uasjava.tiketbioskop.model.Kursi;
+import com.uasjava.tiketbioskop.model.KursiReservasi;
 import com.uasjava.tiketbioskop.model.Tiket;
 import com.uasjava.tiketbioskop.model.Transaksi;
 import com.uasjava.tiketbioskop.model.Users;
 import com.uasjava.tiketbioskop.repository.JadwalRepository;
 import com.uasjava.tiketbioskop.repository.KursiRepository;
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
 import com.uasjava.tiketbioskop.repository.TiketRepository;
 import com.uasjava.tiketbioskop.repository.TransaksiRepository;
-import com.uasjava.tiketbioskop.service.EmailService;
+import com.uasjava.tiketbioskop.scheduler.TransaksiExpiryWheel;
+import com.uasjava.tiketbioskop.service.EmailOutboxService;
+import com.uasjava.tiketbioskop.service.TiketPdfService;
 import com.uasjava.tiketbioskop.service.TransaksiService;
 import com.uasjava.tiketbioskop.service.helper.AuthHelperService;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
+import com.uasjava.tiketbioskop.service.inventory.SeatHold;
+import com.uasjava.tiketbioskop.service.inventory.SeatInventoryService;
+import com.uasjava.tiketbioskop.util.KodePembayaranGenerator;
+import com.uasjava.tiketbioskop.util.TransactionUtil;
 
-import jakarta.mail.MessagingException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 import org.springframework.data.domain.Page;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.thymeleaf.context.Context;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @Service
@@ -42,8 +52,14 @@ public class TransaksiServiceImpl implements TransaksiService {
     private final KursiRepository kursiRepository;
     private final TransaksiRepository transaksiRepository;
     private final TiketRepository tiketRepository;
+    private final KursiReservasiRepository kursiReservasiRepository;
     private final AuthHelperService authHelperService;
-    private final EmailService emailService;
+    private final EmailOutboxService emailOutboxService;
+    private final SeatInventoryService seatInventoryService;
+    private final TransaksiExpiryWheel transaksiExpiryWheel;
+    private final SseBroadcaster sseBroadcaster;
+    private final KodePembayaranGenerator kodePembayaranGenerator;
+    private final TiketPdfService tiketPdfService;
 
     @Override
     public CheckoutResponseDTO checkout(CheckoutRequestDTO request) {
@@ -64,51 +80,15 @@ public class TransaksiServiceImpl implements TransaksiService {
             throw new IllegalStateException("Jadwal sudah tidak berlaku");
         }
 
-        // Validasi kursi tersedia
-        List<Kursi> requestedKursi = kursiRepository.findAllById(request.getKursiIdList());
-        if (requestedKursi.size() != request.getKursiIdList().size()) {
-            throw new KursiNotAvailableException("Beberapa kursi tidak ditemukan");
-        }
-
-        // Check kursi yang sudah di-booking (LUNAS)
-        List<Kursi> unavailableKursi = kursiRepository.findAvailableKursiForJadwal(
-                request.getKursiIdList(),
-                jadwal.getBioskop().getId(),
-                jadwal.getId()
-        );
-
-        if (unavailableKursi.size() != request.getKursiIdList().size()) {
-            List<String> unavailableKursiNomor = requestedKursi.stream()
-                    .filter(kursi -> !unavailableKursi.contains(kursi))
-                    .map(Kursi::getNomor)
-                    .collect(Collectors.toList());
-            throw new KursiNotAvailableException(
-                String.join(", ", unavailableKursiNomor),
-                "kursi sudah di-booking"
-            );
-        }
-
-        // Check kursi yang sedang pending (mencegah double booking)
-        List<Kursi> pendingKursi = kursiRepository.findPendingKursiForJadwal(
-                request.getKursiIdList(),
-                jadwal.getId()
-        );
-
-        if (!pendingKursi.isEmpty()) {
-            List<String> pendingKursiNomor = pendingKursi.stream()
-                    .map(Kursi::getNomor)
-                    .collect(Collectors.toList());
-            throw new KursiNotAvailableException(
-                String.join(", ", pendingKursiNomor),
-                "kursi sedang dalam proses booking"
-            );
-        }
+        // Cek dan tahan kursi di peta kursi in-memory (tanpa query ketersediaan)
+        SeatHold hold = seatInventoryService.hold(jadwal, request.getKursiIdList());
+        TransactionUtil.afterRollback(() -> seatInventoryService.release(hold));
 
         // Hitung harga berdasarkan tipe kursi
-        int totalHarga = calculateTotalHarga(requestedKursi);
+        int totalHarga = calculateTotalHarga(hold.getTipeList());
 
-        // Generate kode pembayaran unik
-        String kodePembayaran = generateUniqueKodePembayaran();
+        // Generate kode pembayaran unik (unik dari konstruksinya, tanpa cek ke database)
+        String kodePembayaran = kodePembayaranGenerator.generate();
 
         // Set waktu expired (5 menit)
         LocalDateTime expiredAt = LocalDateTime.now().plusMinutes(5);
@@ -127,20 +107,32 @@ public class TransaksiServiceImpl implements TransaksiService {
         // Simpan transaksi terlebih dahulu
         transaksi = transaksiRepository.save(transaksi);
 
+        // Reservasi kursi di database, unique (jadwal_id, kursi_id) menolak kursi yang sudah terpakai
+        try {
+            kursiReservasiRepository.insertDitahan(jadwal.getId(), transaksi.getId(), hold.getKursiIdList());
+        } catch (KursiNotAvailableException e) {
+            // Peta kursi di memori tidak sinkron dengan database, muat ulang pada akses berikutnya
+            Long jadwalId = jadwal.getId();
+            TransactionUtil.afterRollback(() -> seatInventoryService.evictJadwal(jadwalId));
+            throw e;
+        }
+
         // Buat tiket untuk setiap kursi
-        final Transaksi finalTransaksi = transaksi;
-        List<Tiket> tiketList = requestedKursi.stream()
-                .map(kursi -> {
-                    int harga = getHargaByTipe(kursi.getTipe());
-                    return Tiket.builder()
-                            .transaksi(finalTransaksi)
-                            .kursi(kursi)
-                            .harga(harga)
-                            .build();
-                })
-                .collect(Collectors.toList());
+        List<Tiket> tiketList = new ArrayList<>(hold.getKursiIdList().size());
+        for (int i = 0; i < hold.getKursiIdList().size(); i++) {
+            tiketList.add(Tiket.builder()
+                    .transaksi(transaksi)
+                    .kursi(kursiRepository.getReferenceById(hold.getKursiIdList().get(i)))
+                    .harga(getHargaByTipe(hold.getTipeList().get(i)))
+                    .build());
+        }
 
         tiketList = tiketRepository.saveAll(tiketList);
+        Long transaksiId = transaksi.getId();
+        TransactionUtil.afterCommit(() -> {
+            seatInventoryService.bind(hold, transaksiId);
+            transaksiExpiryWheel.register(transaksiId, expiredAt);
+        });
 
         log.info("Checkout berhasil untuk transaksi ID: {} dengan kode: {}", transaksi.getId(), kodePembayaran);
 
@@ -154,9 +146,9 @@ public class TransaksiServiceImpl implements TransaksiService {
                 .build();
     }
 
-    private int calculateTotalHarga(List<Kursi> kursiList) {
-        return kursiList.stream()
-                .mapToInt(kursi -> getHargaByTipe(kursi.getTipe()))
+    private int calculateTotalHarga(List<Kursi.TipeKursi> tipeList) {
+        return tipeList.stream()
+                .mapToInt(this::getHargaByTipe)
                 .sum();
     }
 
@@ -168,20 +160,6 @@ public class TransaksiServiceImpl implements TransaksiService {
         };
     }
 
-    private String generateUniqueKodePembayaran() {
-        String kode;
-        int attempts = 0;
-        do {
-            kode = "TXN" + UUID.randomUUID().toString().substring(0, 8).toUpperCase();
-            attempts++;
-            if (attempts > 10) {
-                throw new RuntimeException("Tidak dapat generate kode pembayaran unik");
-            }
-        } while (transaksiRepository.existsByKodePembayaran(kode));
-
-        return kode;
-    }
-
     @Override
     public boolean konfirmasiPembayaran(String kodePembayaran) {
         log.info("Memproses konfirmasi pembayaran dengan kode: {}", kodePembayaran);
@@ -195,53 +173,84 @@ public class TransaksiServiceImpl implements TransaksiService {
             return false; // Sudah dikonfirmasi atau dibatalkan
         }
 
+        Long transaksiId = transaksi.getId();
         if (LocalDateTime.now().isAfter(transaksi.getExpiredAt())) {
             log.info("Transaksi dengan kode {} sudah kadaluarsa, membatalkan...", kodePembayaran);
+            if (transaksiRepository.updateStatusIfCurrent(transaksiId,
+                    Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.DIBATALKAN) == 0) {
+                // Sudah dibatalkan lebih dulu oleh pembatalan kadaluarsa
+                return false;
+            }
             transaksi.setStatus(Transaksi.StatusTransaksi.DIBATALKAN);
-            transaksiRepository.save(transaksi);
+            kursiReservasiRepository.deleteByTransaksiIdIn(List.of(transaksiId));
+            TransactionUtil.afterCommit(() -> {
+                transaksiExpiryWheel.cancel(transaksiId);
+                seatInventoryService.releaseTransaksi(transaksiId);
+                publishStatus(transaksi);
+            });
             return false;
         }
 
-        // Update status menjadi LUNAS
+        // Update status menjadi LUNAS hanya jika di database masih PENDING. Pembatalan kadaluarsa yang commit
+        // di antara pengecekan di atas dan baris ini membuat update tidak mengenai baris apa pun; sebaliknya
+        // setelah update berhasil baris terkunci sehingga pembatalan kadaluarsa melewatinya.
+        if (transaksiRepository.updateStatusIfCurrent(transaksiId,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.LUNAS) == 0) {
+            log.warn("Transaksi dengan kode {} sudah diproses bersamaan oleh proses lain", kodePembayaran);
+            return false;
+        }
         transaksi.setStatus(Transaksi.StatusTransaksi.LUNAS);
-        transaksiRepository.save(transaksi);
 
-        // Kirim email konfirmasi
-        try {
-            sendPaymentConfirmationEmail(transaksi);
-            log.info("Email konfirmasi berhasil dikirim untuk transaksi: {}", kodePembayaran);
-        } catch (MessagingException e) {
-            log.error("Gagal mengirim email konfirmasi untuk transaksi {}: {}", kodePembayaran, e.getMessage(), e);
-            // Jangan throw exception karena pembayaran sudah berhasil
+        // Semua kursi tiket harus masih tercatat sebagai reservasi, kalau tidak kursi bisa terjual dua kali
+        int terjual = kursiReservasiRepository.updateStatusByTransaksiId(transaksiId,
+                KursiReservasi.StatusReservasi.TERJUAL);
+        int jumlahTiket = transaksi.getTiketList().size();
+        if (terjual < jumlahTiket) {
+            log.error("Reservasi kursi transaksi {} tinggal {} dari {} kursi, konfirmasi dibatalkan",
+                    kodePembayaran, terjual, jumlahTiket);
+            TransactionUtil.setRollbackOnly();
+            return false;
         }
 
+        TransactionUtil.afterCommit(() -> {
+            transaksiExpiryWheel.cancel(transaksiId);
+            seatInventoryService.markSold(transaksiId);
+            publishStatus(transaksi);
+            // Siapkan PDF tiket sebelum user mendownload
+            tiketPdfService.prerender(transaksiId);
+        });
+
+        // Email konfirmasi dicatat ke outbox dalam transaksi ini, pengiriman ke SMTP dilakukan dispatcher
+        enqueuePaymentConfirmationEmail(transaksi);
+        log.info("Email konfirmasi dijadwalkan untuk transaksi: {}", kodePembayaran);
+
         return true;
     }
 
-    private void sendPaymentConfirmationEmail(Transaksi transaksi) throws MessagingException {
-        Context context = new Context();
-        context.setVariable("username", transaksi.getUsers().getUsername());
-        context.setVariable("kodePembayaran", transaksi.getKodePembayaran());
-        context.setVariable("judul", transaksi.getJadwal().getFilm().getJudul());
-        context.setVariable("genre", transaksi.getJadwal().getFilm().getGenre());
-        context.setVariable("durasi", transaksi.getJadwal().getFilm().getDurasi());
-        context.setVariable("bioskop", transaksi.getJadwal().getBioskop().getNama());
-        context.setVariable("lokasi", transaksi.getJadwal().getBioskop().getLokasi());
-        context.setVariable("tanggal", transaksi.getJadwal().getTanggal().toString());
-        context.setVariable("jam", transaksi.getJadwal().getJam().toString());
-        context.setVariable("kursi", transaksi.getTiketList().stream()
+    private void enqueuePaymentConfirmationEmail(Transaksi transaksi) {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("username", transaksi.getUsers().getUsername());
+        variables.put("kodePembayaran", transaksi.getKodePembayaran());
+        variables.put("judul", transaksi.getJadwal().getFilm().getJudul());
+        variables.put("genre", transaksi.getJadwal().getFilm().getGenre());
+        variables.put("durasi", transaksi.getJadwal().getFilm().getDurasi());
+        variables.put("bioskop", transaksi.getJadwal().getBioskop().getNama());
+        variables.put("lokasi", transaksi.getJadwal().getBioskop().getLokasi());
+        variables.put("tanggal", transaksi.getJadwal().getTanggal().toString());
+        variables.put("jam", transaksi.getJadwal().getJam().toString());
+        variables.put("kursi", transaksi.getTiketList().stream()
             .map(t -> t.getKursi().getNomor() + " (" + t.getKursi().getTipe() + ")")
             .toList());
-        context.setVariable("totalHarga", transaksi.getTotalHarga());
-        context.setVariable("metodePembayaran", transaksi.getMetodePembayaran());
-        context.setVariable("status", transaksi.getStatus());
-        context.setVariable("waktuTransaksi", transaksi.getCreatedAt().toString());
+        variables.put("totalHarga", transaksi.getTotalHarga());
+        variables.put("metodePembayaran", transaksi.getMetodePembayaran());
+        variables.put("status", transaksi.getStatus().name());
+        variables.put("waktuTransaksi", transaksi.getCreatedAt().toString());
 
-        emailService.sendPaymentEmail(
+        emailOutboxService.enqueue(
                 transaksi.getUsers().getEmail(),
                 "Konfirmasi Pembayaran Tiket Bioskop - " + transaksi.getKodePembayaran(),
                 "email/payment-success",
-                context);
+                variables);
     }
 
     @Override
@@ -278,9 +287,23 @@ public class TransaksiServiceImpl implements TransaksiService {
                     .build();
         }
 
-        // Update status transaksi
+        // Update status transaksi, hanya jika belum dikonfirmasi atau dibatalkan proses lain sejak dibaca
+        if (transaksiRepository.updateStatusIfCurrent(transaksiId,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.DIBATALKAN) == 0) {
+            return GenericResponse.<String>builder()
+                    .success(false)
+                    .message("Hanya transaksi dengan status PENDING yang dapat dibatalkan")
+                    .timestamp(LocalDateTime.now())
+                    .build();
+        }
         transaksi.setStatus(Transaksi.StatusTransaksi.DIBATALKAN);
-        transaksiRepository.save(transaksi);
+        kursiReservasiRepository.deleteByTransaksiIdIn(List.of(transaksiId));
+        TransactionUtil.afterCommit(() -> {
+            transaksiExpiryWheel.cancel(transaksiId);
+            seatInventoryService.releaseTransaksi(transaksiId);
+            tiketPdfService.invalidate(transaksiId);
+            publishStatus(transaksi);
+        });
 
         log.info("Transaksi ID: {} berhasil dibatalkan oleh user: {}", transaksiId, currentUser.getUsername());
 
@@ -292,6 +315,35 @@ public class TransaksiServiceImpl implements TransaksiService {
                 .build();
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public TransaksiStatusEventDTO getMyTransactionStatus(Long transaksiId) {
+        Users currentUser = authHelperService.getCurrentUser();
+        Transaksi transaksi = transaksiRepository.findById(transaksiId)
+                .orElseThrow(() -> new ResourceNotFoundException("Transaksi", "id", transaksiId));
+
+        // Validasi kepemilikan transaksi
+        if (transaksi.getUsers().getId() != currentUser.getId()) {
+            throw new IllegalStateException("Anda tidak memiliki akses ke transaksi ini");
+        }
+
+        return toStatusEvent(transaksi);
+    }
+
+    private void publishStatus(Transaksi transaksi) {
+        sseBroadcaster.publish(SseBroadcaster.transaksiChannel(transaksi.getId()), "status", toStatusEvent(transaksi));
+    }
+
+    private TransaksiStatusEventDTO toStatusEvent(Transaksi transaksi) {
+        return TransaksiStatusEventDTO.builder()
+                .transaksiId(transaksi.getId())
+                .kodePembayaran(transaksi.getKodePembayaran())
+                .status(transaksi.getStatus())
+                .expiredAt(transaksi.getExpiredAt())
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+
     @Override
     public Page<TransaksiDTO> getMyTransactions(int page, int size, String sortBy, String sortDir) {
         Users currentUser = authHelperService.getCurrentUser();
@@ -0,0 +1,107 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.uasjava.tiketbioskop.exception.ServiceBusyException;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Lock bergaris (striped) per jadwal.
+ *
+ * Setiap jadwal dipetakan ke salah satu lock dari array berukuran tetap, sehingga
+ * pembeli kursi untuk jadwal yang sama saling menunggu, sedangkan jadwal lain tidak ikut tertahan.
+ * Jumlah akuisisi, akuisisi yang harus menunggu, dan lama menunggu dipublikasikan ke Micrometer
+ * sebagai dasar menentukan jumlah stripe.
+ */
+@Component
+@Slf4j
+public class JadwalLockManager {
+
+    private final ReentrantLock[] stripes;
+    private final int mask;
+    private final long timeoutMillis;
+
+    private final Counter acquired;
+    private final Counter contended;
+    private final Timer waitTimer;
+
+    public JadwalLockManager(MeterRegistry meterRegistry,
+                             @Value("${app.inventory.lock-stripes:64}") int stripeCount,
+                             @Value("${app.inventory.lock-timeout-ms:2000}") long timeoutMillis) {
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1) << 1);
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        this.mask = size - 1;
+        this.timeoutMillis = timeoutMillis;
+
+        this.acquired = Counter.builder("tiketbioskop.seat.lock.acquired")
+                .description("Jumlah akuisisi lock kursi per jadwal")
+                .register(meterRegistry);
+        this.contended = Counter.builder("tiketbioskop.seat.lock.contended")
+                .description("Jumlah akuisisi lock yang harus menunggu pemegang lain")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("tiketbioskop.seat.lock.wait")
+                .description("Lama menunggu lock kursi saat terjadi contention")
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("tiketbioskop.seat.lock.stripes", () -> size)
+                .description("Jumlah stripe lock kursi")
+                .register(meterRegistry);
+
+        log.info("Lock kursi per jadwal diinisialisasi dengan {} stripe", size);
+    }
+
+    public <T> T withLock(Long jadwalId, Supplier<T> action) {
+        ReentrantLock lock = lockFor(jadwalId);
+        acquire(lock);
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void withLock(Long jadwalId, Runnable action) {
+        withLock(jadwalId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    private ReentrantLock lockFor(Long jadwalId) {
+        int hash = Long.hashCode(jadwalId);
+        return stripes[(hash ^ (hash >>> 16)) & mask];
+    }
+
+    private void acquire(ReentrantLock lock) {
+        acquired.increment();
+        if (lock.tryLock()) {
+            return;
+        }
+
+        contended.increment();
+        long start = System.nanoTime();
+        try {
+            if (!lock.tryLock(timeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new ServiceBusyException("Sistem sedang sibuk memproses kursi untuk jadwal ini, silakan coba lagi");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Proses penguncian kursi terputus, silakan coba lagi", e);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+}
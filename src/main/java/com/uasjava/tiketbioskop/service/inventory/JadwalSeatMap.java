@@ -0,0 +1,160 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import com.uasjava.tiketbioskop.model.Kursi;
+
+import lombok.Getter;
+
+/**
+ * Peta kursi in-memory untuk satu jadwal.
+ *
+ * Setiap kursi di bioskop jadwal mendapat ordinal padat (urutan id kursi),
+ * lalu status terjual dan ditahan disimpan sebagai bitmap long[] dengan satu bit per kursi.
+ * Class ini tidak thread-safe, pemanggil wajib memegang lock jadwal dari {@link JadwalLockManager}
+ * sebelum membaca atau mengubah status.
+ *
+ * Setiap perubahan status menaikkan {@code version}. Bersama {@code epoch} (waktu peta dimuat)
+ * keduanya membentuk penanda unik keadaan peta, termasuk setelah peta dibuang dan dimuat ulang.
+ */
+public class JadwalSeatMap {
+
+    @Getter
+    private final Long jadwalId;
+
+    @Getter
+    private final Long bioskopId;
+
+    @Getter
+    private final LocalDate tanggal;
+
+    @Getter
+    private final long epoch;
+
+    @Getter
+    private volatile long version;
+
+    private final long[] kursiIds;
+    private final String[] nomor;
+    private final Kursi.TipeKursi[] tipe;
+    private final long[] sold;
+    private final long[] held;
+
+    public JadwalSeatMap(Long jadwalId, Long bioskopId, LocalDate tanggal, List<Kursi> kursiList) {
+        this.jadwalId = jadwalId;
+        this.bioskopId = bioskopId;
+        this.tanggal = tanggal;
+        this.epoch = System.currentTimeMillis();
+
+        List<Kursi> sorted = kursiList.stream()
+                .sorted(Comparator.comparing(Kursi::getId))
+                .toList();
+
+        int size = sorted.size();
+        this.kursiIds = new long[size];
+        this.nomor = new String[size];
+        this.tipe = new Kursi.TipeKursi[size];
+        for (int i = 0; i < size; i++) {
+            Kursi kursi = sorted.get(i);
+            kursiIds[i] = kursi.getId();
+            nomor[i] = kursi.getNomor();
+            tipe[i] = kursi.getTipe();
+        }
+
+        int words = (size + 63) >>> 6;
+        this.sold = new long[words];
+        this.held = new long[words];
+    }
+
+    /**
+     * Penanda versi peta dalam bentuk "epoch-version", dipakai sebagai ETag dan di frame WebSocket
+     */
+    public String versionTag() {
+        return Long.toString(epoch, 36) + "-" + version;
+    }
+
+    public int size() {
+        return kursiIds.length;
+    }
+
+    /**
+     * Ordinal kursi di peta ini, atau -1 jika kursi bukan milik bioskop jadwal
+     */
+    public int ordinalOf(Long kursiId) {
+        if (kursiId == null) {
+            return -1;
+        }
+        int index = Arrays.binarySearch(kursiIds, kursiId);
+        return index >= 0 ? index : -1;
+    }
+
+    public Long kursiIdAt(int ordinal) {
+        return kursiIds[ordinal];
+    }
+
+    public String nomorAt(int ordinal) {
+        return nomor[ordinal];
+    }
+
+    public Kursi.TipeKursi tipeAt(int ordinal) {
+        return tipe[ordinal];
+    }
+
+    public boolean isSold(int ordinal) {
+        return (sold[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    public boolean isHeld(int ordinal) {
+        return (held[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    public boolean isFree(int ordinal) {
+        int word = ordinal >>> 6;
+        return ((sold[word] | held[word]) & (1L << ordinal)) == 0;
+    }
+
+    public SeatState stateAt(int ordinal) {
+        if (isSold(ordinal)) {
+            return SeatState.TERJUAL;
+        }
+        return isHeld(ordinal) ? SeatState.DITAHAN : SeatState.TERSEDIA;
+    }
+
+    public void hold(int[] ordinals) {
+        for (int ordinal : ordinals) {
+            held[ordinal >>> 6] |= 1L << ordinal;
+        }
+        version++;
+    }
+
+    /**
+     * Melepas kursi yang ditahan. Kursi yang sudah terjual tidak ikut dilepas.
+     */
+    public void release(int[] ordinals) {
+        for (int ordinal : ordinals) {
+            held[ordinal >>> 6] &= ~(1L << ordinal);
+        }
+        version++;
+    }
+
+    public void markSold(int[] ordinals) {
+        for (int ordinal : ordinals) {
+            int word = ordinal >>> 6;
+            long mask = 1L << ordinal;
+            held[word] &= ~mask;
+            sold[word] |= mask;
+        }
+        version++;
+    }
+
+    public int countFree() {
+        int used = 0;
+        for (int i = 0; i < sold.length; i++) {
+            used += Long.bitCount(sold[i] | held[i]);
+        }
+        return kursiIds.length - used;
+    }
+}
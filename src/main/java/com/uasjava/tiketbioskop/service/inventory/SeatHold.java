@@ -0,0 +1,23 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import java.util.List;
+
+import com.uasjava.tiketbioskop.model.Kursi;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Kursi yang sedang ditahan untuk satu transaksi, disimpan sebagai ordinal di {@link JadwalSeatMap}.
+ * Ordinal hanya berlaku untuk instance peta tempat kursi ditahan, peta yang dimuat ulang bisa
+ * memiliki urutan kursi yang berbeda.
+ */
+@Getter
+@AllArgsConstructor
+public class SeatHold {
+    private final Long jadwalId;
+    private final JadwalSeatMap seatMap;
+    private final int[] ordinals;
+    private final List<Long> kursiIdList;
+    private final List<Kursi.TipeKursi> tipeList;
+}
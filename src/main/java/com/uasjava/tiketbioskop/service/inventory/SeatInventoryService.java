@@ -0,0 +1,303 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import com.uasjava.tiketbioskop.dto.SeatMapDTO;
+import com.uasjava.tiketbioskop.exception.KursiNotAvailableException;
+import com.uasjava.tiketbioskop.model.Jadwal;
+import com.uasjava.tiketbioskop.model.Kursi;
+import com.uasjava.tiketbioskop.model.KursiReservasi;
+import com.uasjava.tiketbioskop.repository.KursiRepository;
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Inventori kursi per jadwal yang disimpan di memori.
+ *
+ * Peta kursi dimuat sekali dari database saat jadwal pertama kali diakses, setelah itu
+ * pengecekan ketersediaan dan penahanan kursi cukup membaca bitmap tanpa query.
+ * Database hanya disentuh untuk menyimpan hasil transaksi. Semua perubahan status kursi
+ * dilakukan di bawah lock per jadwal dari {@link JadwalLockManager} dan diteruskan ke
+ * {@link SeatUpdateBroadcaster} untuk dikirim ke klien WebSocket.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SeatInventoryService {
+
+    private final KursiRepository kursiRepository;
+    private final KursiReservasiRepository kursiReservasiRepository;
+    private final JadwalLockManager jadwalLockManager;
+    private final SeatUpdateBroadcaster seatUpdateBroadcaster;
+
+    private final Map<Long, JadwalSeatMap> seatMaps = new ConcurrentHashMap<>();
+    private final Map<Long, SeatHold> holds = new ConcurrentHashMap<>();
+    private final Map<Long, SeatMapDTO> snapshots = new ConcurrentHashMap<>();
+
+    public JadwalSeatMap getSeatMap(Jadwal jadwal) {
+        JadwalSeatMap seatMap = seatMaps.get(jadwal.getId());
+        if (seatMap != null) {
+            return seatMap;
+        }
+        // Dimuat di bawah lock jadwal agar hold transaksi PENDING dari peta baru tidak bersilangan dengan evictJadwal
+        return jadwalLockManager.withLock(jadwal.getId(),
+                () -> seatMaps.computeIfAbsent(jadwal.getId(), id -> load(jadwal)));
+    }
+
+    private JadwalSeatMap load(Jadwal jadwal) {
+        Long bioskopId = jadwal.getBioskop().getId();
+        JadwalSeatMap seatMap = new JadwalSeatMap(jadwal.getId(), bioskopId, jadwal.getTanggal(),
+                kursiRepository.findByBioskopIdOrderByIdAsc(bioskopId));
+
+        Map<Long, List<Integer>> pendingByTransaksi = new HashMap<>();
+        for (KursiReservasiRepository.KursiTerpakai row : kursiReservasiRepository.findKursiTerpakaiByJadwalId(jadwal.getId())) {
+            int ordinal = seatMap.ordinalOf(row.getKursiId());
+            if (ordinal < 0) {
+                continue;
+            }
+            if (row.getStatus() == KursiReservasi.StatusReservasi.TERJUAL) {
+                seatMap.markSold(new int[] { ordinal });
+            } else {
+                seatMap.hold(new int[] { ordinal });
+                pendingByTransaksi.computeIfAbsent(row.getTransaksiId(), k -> new ArrayList<>()).add(ordinal);
+            }
+        }
+
+        pendingByTransaksi.forEach((transaksiId, ordinalList) -> {
+            int[] ordinals = ordinalList.stream().mapToInt(Integer::intValue).toArray();
+            holds.put(transaksiId, toHold(seatMap, ordinals));
+        });
+
+        log.info("Peta kursi jadwal ID: {} dimuat dengan {} kursi, {} tersedia",
+                jadwal.getId(), seatMap.size(), seatMap.countFree());
+        return seatMap;
+    }
+
+    /**
+     * Snapshot status semua kursi jadwal. Snapshot disimpan per jadwal dan hanya dibangun ulang
+     * jika versi peta kursi sudah berubah, sehingga polling tanpa perubahan tidak mengambil lock.
+     */
+    public SeatMapDTO getSnapshot(Jadwal jadwal) {
+        return snapshotOf(jadwal.getId(), getSeatMap(jadwal));
+    }
+
+    /**
+     * Snapshot jadwal yang peta kursinya sudah ada di memori, tanpa menyentuh database.
+     * Kosong jika peta belum dimuat, pemanggil perlu membaca jadwal lalu memakai {@link #getSnapshot(Jadwal)}.
+     */
+    public Optional<SeatMapDTO> findSnapshot(Long jadwalId) {
+        JadwalSeatMap seatMap = seatMaps.get(jadwalId);
+        return seatMap == null ? Optional.empty() : Optional.of(snapshotOf(jadwalId, seatMap));
+    }
+
+    private SeatMapDTO snapshotOf(Long jadwalId, JadwalSeatMap seatMap) {
+        SeatMapDTO cached = snapshots.get(jadwalId);
+        if (cached != null && cached.getVersion().equals(seatMap.versionTag())) {
+            return cached;
+        }
+
+        SeatMapDTO snapshot = jadwalLockManager.withLock(jadwalId, () -> buildSnapshot(seatMap));
+        snapshots.put(jadwalId, snapshot);
+        return snapshot;
+    }
+
+    private SeatMapDTO buildSnapshot(JadwalSeatMap seatMap) {
+        List<SeatMapDTO.KursiStatus> kursi = new ArrayList<>(seatMap.size());
+        for (int ordinal = 0; ordinal < seatMap.size(); ordinal++) {
+            kursi.add(new SeatMapDTO.KursiStatus(seatMap.kursiIdAt(ordinal), seatMap.nomorAt(ordinal),
+                    seatMap.tipeAt(ordinal), seatMap.stateAt(ordinal)));
+        }
+        return SeatMapDTO.builder()
+                .jadwalId(seatMap.getJadwalId())
+                .bioskopId(seatMap.getBioskopId())
+                .version(seatMap.versionTag())
+                .totalKursi(seatMap.size())
+                .tersedia(seatMap.countFree())
+                .kursi(List.copyOf(kursi))
+                .build();
+    }
+
+    /**
+     * Cek ketersediaan dan tahan kursi untuk checkout dalam satu langkah.
+     * Melempar {@link KursiNotAvailableException} jika ada kursi yang tidak ditemukan atau tidak tersedia.
+     */
+    public SeatHold hold(Jadwal jadwal, List<Long> kursiIdList) {
+        if (new HashSet<>(kursiIdList).size() != kursiIdList.size()) {
+            throw new KursiNotAvailableException("Beberapa kursi tidak ditemukan");
+        }
+
+        return jadwalLockManager.withLock(jadwal.getId(), () -> {
+            // Peta diambil di dalam lock agar tidak menahan kursi di peta yang sedang dibuang
+            JadwalSeatMap seatMap = getSeatMap(jadwal);
+            int[] ordinals = new int[kursiIdList.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = seatMap.ordinalOf(kursiIdList.get(i));
+                if (ordinals[i] < 0) {
+                    throw new KursiNotAvailableException("Beberapa kursi tidak ditemukan");
+                }
+            }
+
+            List<String> soldNomor = new ArrayList<>();
+            List<String> heldNomor = new ArrayList<>();
+            for (int ordinal : ordinals) {
+                if (seatMap.isSold(ordinal)) {
+                    soldNomor.add(seatMap.nomorAt(ordinal));
+                } else if (seatMap.isHeld(ordinal)) {
+                    heldNomor.add(seatMap.nomorAt(ordinal));
+                }
+            }
+
+            if (!soldNomor.isEmpty()) {
+                throw new KursiNotAvailableException(String.join(", ", soldNomor), "kursi sudah di-booking");
+            }
+            if (!heldNomor.isEmpty()) {
+                throw new KursiNotAvailableException(String.join(", ", heldNomor), "kursi sedang dalam proses booking");
+            }
+
+            seatMap.hold(ordinals);
+            seatUpdateBroadcaster.record(seatMap, ordinals);
+            return toHold(seatMap, ordinals);
+        });
+    }
+
+    /**
+     * Kaitkan kursi yang ditahan dengan transaksi yang sudah tersimpan.
+     * Jika peta sudah dimuat ulang sejak kursi ditahan, peta dibuang lagi agar dimuat dari database
+     * yang sudah berisi reservasi transaksi ini.
+     */
+    public void bind(SeatHold hold, Long transaksiId) {
+        boolean berlaku = jadwalLockManager.withLock(hold.getJadwalId(), () -> {
+            if (currentMap(hold) == null) {
+                return false;
+            }
+            holds.put(transaksiId, hold);
+            return true;
+        });
+        if (!berlaku) {
+            evictJadwal(hold.getJadwalId());
+        }
+    }
+
+    /**
+     * Lepas kursi yang ditahan. Hold dari peta yang sudah dimuat ulang diabaikan karena peta baru
+     * dibangun dari database yang tidak memuat reservasi tersebut.
+     */
+    public void release(SeatHold hold) {
+        jadwalLockManager.withLock(hold.getJadwalId(), () -> {
+            JadwalSeatMap seatMap = currentMap(hold);
+            if (seatMap == null) {
+                return;
+            }
+            seatMap.release(hold.getOrdinals());
+            seatUpdateBroadcaster.record(seatMap, hold.getOrdinals());
+        });
+    }
+
+    /**
+     * Lepas kursi milik transaksi yang dibatalkan atau kadaluarsa
+     */
+    public void releaseTransaksi(Long transaksiId) {
+        SeatHold hold = holds.remove(transaksiId);
+        if (hold != null) {
+            release(hold);
+        }
+    }
+
+    /**
+     * Tandai kursi milik transaksi sebagai terjual setelah pembayaran lunas
+     */
+    public void markSold(Long transaksiId) {
+        SeatHold hold = holds.remove(transaksiId);
+        if (hold == null) {
+            return;
+        }
+        boolean berlaku = jadwalLockManager.withLock(hold.getJadwalId(), () -> {
+            JadwalSeatMap seatMap = currentMap(hold);
+            if (seatMap == null) {
+                return false;
+            }
+            seatMap.markSold(hold.getOrdinals());
+            seatUpdateBroadcaster.record(seatMap, hold.getOrdinals());
+            return true;
+        });
+        if (!berlaku) {
+            // Ordinal hold tidak berlaku di peta sekarang, muat ulang dari database yang sudah LUNAS
+            evictJadwal(hold.getJadwalId());
+        }
+    }
+
+    /**
+     * Peta tempat hold dibuat jika masih menjadi peta aktif jadwal, null jika sudah dibuang atau dimuat ulang.
+     * Pemanggil wajib memegang lock jadwal.
+     */
+    private JadwalSeatMap currentMap(SeatHold hold) {
+        JadwalSeatMap seatMap = seatMaps.get(hold.getJadwalId());
+        return seatMap == hold.getSeatMap() ? seatMap : null;
+    }
+
+    /**
+     * Buang peta kursi jadwal agar dimuat ulang dari database pada akses berikutnya
+     */
+    public void evictJadwal(Long jadwalId) {
+        jadwalLockManager.withLock(jadwalId, () -> {
+            JadwalSeatMap removed = seatMaps.remove(jadwalId);
+            if (removed != null) {
+                snapshots.remove(jadwalId);
+                // Hanya hold milik peta yang dibuang, bukan hold dari peta yang dimuat ulang
+                holds.values().removeIf(hold -> hold.getSeatMap() == removed);
+                log.debug("Peta kursi jadwal ID: {} dibuang dari cache", jadwalId);
+            }
+        });
+    }
+
+    /**
+     * Buang semua peta kursi milik bioskop, dipanggil saat data kursi bioskop berubah
+     */
+    public void evictBioskop(Long bioskopId) {
+        Set<Long> jadwalIds = new HashSet<>();
+        seatMaps.forEach((jadwalId, seatMap) -> {
+            if (seatMap.getBioskopId().equals(bioskopId)) {
+                jadwalIds.add(jadwalId);
+            }
+        });
+        jadwalIds.forEach(this::evictJadwal);
+    }
+
+    @Scheduled(cron = "0 0 3 * * *") // tiap jam 3 pagi buang jadwal yang sudah lewat
+    public void evictJadwalKadaluarsa() {
+        LocalDate today = LocalDate.now();
+        Set<Long> jadwalIds = new HashSet<>();
+        seatMaps.forEach((jadwalId, seatMap) -> {
+            if (seatMap.getTanggal() != null && seatMap.getTanggal().isBefore(today)) {
+                jadwalIds.add(jadwalId);
+            }
+        });
+        jadwalIds.forEach(this::evictJadwal);
+        if (!jadwalIds.isEmpty()) {
+            log.info("Membuang {} peta kursi jadwal yang sudah lewat", jadwalIds.size());
+        }
+    }
+
+    private SeatHold toHold(JadwalSeatMap seatMap, int[] ordinals) {
+        List<Long> kursiIdList = new ArrayList<>(ordinals.length);
+        List<Kursi.TipeKursi> tipeList = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            kursiIdList.add(seatMap.kursiIdAt(ordinal));
+            tipeList.add(seatMap.tipeAt(ordinal));
+        }
+        return new SeatHold(seatMap.getJadwalId(), seatMap, ordinals, kursiIdList, tipeList);
+    }
+}
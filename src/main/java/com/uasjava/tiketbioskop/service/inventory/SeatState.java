@@ -0,0 +1,8 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+/**
+ * Status kursi pada satu jadwal
+ */
+public enum SeatState {
+    TERSEDIA, DITAHAN, TERJUAL
+}
@@ -0,0 +1,95 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import com.uasjava.tiketbioskop.dto.SeatDeltaDTO;
+import com.uasjava.tiketbioskop.dto.SeatMapDTO;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Mengirim perubahan status kursi ke topic STOMP per jadwal dan ke stream SSE jadwal.
+ *
+ * Perubahan dikumpulkan per jadwal dan hanya status terakhir tiap kursi yang disimpan,
+ * lalu dikirim sebagai satu frame setiap interval push. Lonjakan checkout pada satu jadwal
+ * menjadi satu frame per interval, bukan satu frame per kursi.
+ *
+ * Setiap jadwal punya buffer sendiri dengan lock sendiri, sehingga pencatatan perubahan jadwal yang
+ * berbeda tidak saling menunggu (sejalan dengan lock per jadwal di {@link JadwalLockManager}).
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatUpdateBroadcaster {
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final SseBroadcaster sseBroadcaster;
+
+    private final Map<Long, PendingDelta> pending = new ConcurrentHashMap<>();
+
+    /**
+     * Catat status terbaru kursi, dipanggil di bawah lock jadwal setelah peta kursi berubah
+     */
+    public void record(JadwalSeatMap seatMap, int[] ordinals) {
+        String version = seatMap.versionTag();
+        while (true) {
+            PendingDelta delta = pending.computeIfAbsent(seatMap.getJadwalId(), id -> new PendingDelta());
+            synchronized (delta) {
+                if (delta.removed) {
+                    // Buffer kosong baru saja dibuang flusher, ambil buffer baru
+                    continue;
+                }
+                delta.version = version;
+                for (int ordinal : ordinals) {
+                    delta.kursi.put(seatMap.kursiIdAt(ordinal), new SeatMapDTO.KursiStatus(
+                            seatMap.kursiIdAt(ordinal), seatMap.nomorAt(ordinal),
+                            seatMap.tipeAt(ordinal), seatMap.stateAt(ordinal)));
+                }
+                return;
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.inventory.push-interval-ms:100}")
+    public void flush() {
+        pending.forEach((jadwalId, delta) -> {
+            String version;
+            List<SeatMapDTO.KursiStatus> kursi;
+            synchronized (delta) {
+                if (delta.kursi.isEmpty()) {
+                    // Jadwal tanpa perubahan sejak flush sebelumnya, buffer dibuang agar map tidak terus tumbuh
+                    delta.removed = true;
+                    pending.remove(jadwalId, delta);
+                    return;
+                }
+                version = delta.version;
+                kursi = new ArrayList<>(delta.kursi.values());
+                delta.kursi.clear();
+            }
+
+            SeatDeltaDTO frame = new SeatDeltaDTO(jadwalId, version, kursi);
+            sseBroadcaster.publish(SseBroadcaster.jadwalChannel(jadwalId), "kursi", frame);
+            try {
+                messagingTemplate.convertAndSend("/topic/jadwal/" + jadwalId + "/kursi", frame);
+            } catch (Exception e) {
+                log.warn("Gagal mengirim perubahan kursi jadwal ID: {}: {}", jadwalId, e.getMessage());
+            }
+        });
+    }
+
+    private static final class PendingDelta {
+        private boolean removed;
+        private String version;
+        private final Map<Long, SeatMapDTO.KursiStatus> kursi = new LinkedHashMap<>();
+    }
+}
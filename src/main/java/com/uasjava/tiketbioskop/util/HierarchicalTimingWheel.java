@@ -0,0 +1,171 @@
+package com.uasjava.tiketbioskop.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Timing wheel bertingkat (hierarchical timing wheel) untuk menjadwalkan banyak deadline
+ * dengan biaya O(1) per penambahan dan per tick.
+ *
+ * Level 0 memiliki resolusi satu tick, setiap level berikutnya mencakup {@code wheelSize} kali
+ * rentang level di bawahnya. Entri di level atas diturunkan (cascade) ke level bawah saat
+ * putaran level bawah selesai, sampai akhirnya kadaluarsa di level 0.
+ * Semua method synchronized sehingga aman dipanggil dari beberapa thread.
+ */
+public class HierarchicalTimingWheel<T> {
+
+    private final long tickMillis;
+    private final int wheelSize;
+    private final int levels;
+    private final List<List<Entry<T>>>[] buckets;
+    private final Map<T, Entry<T>> index = new HashMap<>();
+
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HierarchicalTimingWheel(long tickMillis, int wheelSize, int levels, long startMillis) {
+        if (tickMillis <= 0 || wheelSize < 2 || levels < 1) {
+            throw new IllegalArgumentException("Konfigurasi timing wheel tidak valid");
+        }
+        this.tickMillis = tickMillis;
+        this.wheelSize = wheelSize;
+        this.levels = levels;
+        this.buckets = new List[levels];
+        for (int level = 0; level < levels; level++) {
+            List<List<Entry<T>>> wheel = new ArrayList<>(wheelSize);
+            for (int i = 0; i < wheelSize; i++) {
+                wheel.add(new ArrayList<>());
+            }
+            buckets[level] = wheel;
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Jadwalkan item untuk kadaluarsa pada deadline. Item yang sudah terdaftar dijadwalkan ulang.
+     */
+    public synchronized void schedule(T item, long deadlineMillis) {
+        Entry<T> previous = index.remove(item);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        Entry<T> entry = new Entry<>(item, Math.max(deadlineMillis / tickMillis, currentTick + 1));
+        index.put(item, entry);
+        place(entry);
+    }
+
+    /**
+     * Batalkan jadwal item, mengembalikan true jika item masih terdaftar
+     */
+    public synchronized boolean cancel(T item) {
+        Entry<T> entry = index.remove(item);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    /**
+     * Majukan wheel sampai waktu sekarang dan kembalikan item yang kadaluarsa
+     */
+    public synchronized List<T> advance(long nowMillis) {
+        List<T> expired = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        while (currentTick < targetTick) {
+            currentTick++;
+            cascade(1);
+            List<Entry<T>> bucket = buckets[0].get((int) (currentTick % wheelSize));
+            if (bucket.isEmpty()) {
+                continue;
+            }
+            List<Entry<T>> due = new ArrayList<>(bucket);
+            bucket.clear();
+            for (Entry<T> entry : due) {
+                if (entry.cancelled) {
+                    continue;
+                }
+                if (entry.deadlineTick > currentTick) {
+                    // Entri parkir di luar jangkauan wheel, tempatkan ulang
+                    place(entry);
+                    continue;
+                }
+                index.remove(entry.item);
+                expired.add(entry.item);
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return index.size();
+    }
+
+    private void cascade(int level) {
+        if (level >= levels) {
+            return;
+        }
+        long span = pow(wheelSize, level);
+        if (currentTick % span != 0) {
+            return;
+        }
+        // Turunkan level yang lebih atas terlebih dahulu agar entrinya ikut tersebar ke level ini
+        cascade(level + 1);
+
+        List<Entry<T>> bucket = buckets[level].get((int) ((currentTick / span) % wheelSize));
+        if (bucket.isEmpty()) {
+            return;
+        }
+        List<Entry<T>> moved = new ArrayList<>(bucket);
+        bucket.clear();
+        for (Entry<T> entry : moved) {
+            if (!entry.cancelled) {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        long delta = entry.deadlineTick - currentTick;
+        if (delta <= 0) {
+            // Jatuh tempo pada tick ini (hasil cascade), slot ini diproses setelah cascade selesai
+            buckets[0].get((int) (currentTick % wheelSize)).add(entry);
+            return;
+        }
+        long span = 1;
+        for (int level = 0; level < levels; level++) {
+            long range = span * wheelSize;
+            if (delta < range) {
+                buckets[level].get((int) ((entry.deadlineTick / span) % wheelSize)).add(entry);
+                return;
+            }
+            span = range;
+        }
+        // Melebihi jangkauan wheel: simpan di slot level teratas yang diturunkan paling akhir,
+        // entri akan ditempatkan ulang saat slot tersebut di-cascade
+        long topSpan = pow(wheelSize, levels - 1);
+        long parkedTick = currentTick + topSpan * wheelSize - 1;
+        buckets[levels - 1].get((int) ((parkedTick / topSpan) % wheelSize)).add(entry);
+    }
+
+    private static long pow(int base, int exponent) {
+        long result = 1;
+        for (int i = 0; i < exponent; i++) {
+            result *= base;
+        }
+        return result;
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineTick;
+        private boolean cancelled;
+
+        private Entry(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -1,46 +1,149 @@
 package com.uasjava.tiketbioskop.util;
 
 import java.io.ByteArrayOutputStream;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
 import java.util.zip.Deflater;
 import java.util.zip.Inflater;
 
+/**
+ * Kompresi data poster yang disimpan di database.
+ *
+ * Data baru diawali header 4 byte: 0x00, 'T', 'B' lalu flag format ({@link #FLAG_RAW} atau
+ * {@link #FLAG_DEFLATE}). JPEG, PNG, GIF dan WebP sudah terkompresi sehingga disimpan apa adanya,
+ * format lain di-deflate. Data lama tanpa header adalah stream zlib, yang tidak pernah diawali 0x00,
+ * dan tetap bisa dibaca.
+ */
 public class ImageUtils {
 
-    public static byte[] compressImage(byte[] data) {
-        Deflater deflater = new Deflater();
-        deflater.setInput(data);
-        deflater.finish();
+    static final byte FLAG_RAW = 0;
+    static final byte FLAG_DEFLATE = 1;
+    private static final int HEADER_LENGTH = 4;
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] tmp = new byte[4 * 1024];
-        while (!deflater.finished()) {
-            int size = deflater.deflate(tmp);
-            outputStream.write(tmp, 0, size);
+    public static byte[] compressImage(byte[] data) {
+        if (!isCompressedFormat(data)) {
+            byte[] deflated = deflate(data);
+            // Deflate hanya dipakai jika benar-benar memperkecil data
+            if (deflated.length < data.length) {
+                return withHeader(FLAG_DEFLATE, deflated);
+            }
         }
-
-        try {
-            outputStream.close();
-        } catch (IOException ignored) {}
-        return outputStream.toByteArray();
+        return withHeader(FLAG_RAW, data);
     }
 
+    /**
+     * Kembalikan data gambar asli. Melempar {@link IllegalArgumentException} jika data rusak.
+     */
     public static byte[] decompressImage(byte[] data) {
         if (data == null || data.length == 0) {
             return null; // bisa juga return new byte[0]; jika ingin kosong bukan null
         }
-        Inflater inflater = new Inflater();
-        inflater.setInput(data);
+        if (!hasHeader(data)) {
+            // Format lama: seluruh data adalah stream zlib
+            return inflate(data, 0);
+        }
+        return switch (data[HEADER_LENGTH - 1]) {
+            case FLAG_RAW -> Arrays.copyOfRange(data, HEADER_LENGTH, data.length);
+            case FLAG_DEFLATE -> inflate(data, HEADER_LENGTH);
+            default -> throw new IllegalArgumentException("Flag format data gambar tidak dikenal: " + data[HEADER_LENGTH - 1]);
+        };
+    }
 
-        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length);
-        byte[] tmp = new byte[4 * 1024];
+    /**
+     * Kompresi lama yang selalu men-deflate seluruh data tanpa header
+     */
+    public static byte[] deflate(byte[] data) {
+        Deflater deflater = new Deflater();
         try {
+            deflater.setInput(data);
+            deflater.finish();
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(64, data.length / 2));
+            byte[] tmp = new byte[4 * 1024];
+            while (!deflater.finished()) {
+                int size = deflater.deflate(tmp);
+                outputStream.write(tmp, 0, size);
+            }
+            return outputStream.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static byte[] inflate(byte[] data, int offset) {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, offset, data.length - offset);
+
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream(data.length * 2);
+            byte[] tmp = new byte[4 * 1024];
             while (!inflater.finished()) {
                 int count = inflater.inflate(tmp);
+                if (count == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalArgumentException("Data gambar terpotong atau rusak");
+                }
                 outputStream.write(tmp, 0, count);
             }
-            outputStream.close();
-        } catch (IOException | java.util.zip.DataFormatException ignored) {}
-        return outputStream.toByteArray();
+            return outputStream.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Data gambar rusak: " + e.getMessage(), e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static boolean isCompressedFormat(byte[] data) {
+        String contentType = detectContentType(data);
+        return contentType.equals("image/jpeg") || contentType.equals("image/png")
+                || contentType.equals("image/gif") || contentType.equals("image/webp");
+    }
+
+    private static boolean hasHeader(byte[] data) {
+        return data.length >= HEADER_LENGTH && data[0] == 0 && data[1] == 'T' && data[2] == 'B';
+    }
+
+    private static byte[] withHeader(byte flag, byte[] payload) {
+        byte[] result = new byte[HEADER_LENGTH + payload.length];
+        result[0] = 0;
+        result[1] = 'T';
+        result[2] = 'B';
+        result[3] = flag;
+        System.arraycopy(payload, 0, result, HEADER_LENGTH, payload.length);
+        return result;
+    }
+
+    /**
+     * Tentukan content type gambar dari magic bytes di awal file.
+     * Mengembalikan application/octet-stream jika format tidak dikenali.
+     */
+    public static String detectContentType(byte[] data) {
+        if (data == null) {
+            return "application/octet-stream";
+        }
+        if (startsWith(data, 0, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(data, 0, 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A)) {
+            return "image/png";
+        }
+        if (startsWith(data, 0, 'G', 'I', 'F', '8')) {
+            return "image/gif";
+        }
+        if (startsWith(data, 0, 'R', 'I', 'F', 'F') && startsWith(data, 8, 'W', 'E', 'B', 'P')) {
+            return "image/webp";
+        }
+        return "application/octet-stream";
+    }
+
+    private static boolean startsWith(byte[] data, int offset, int... magic) {
+        if (data.length < offset + magic.length) {
+            return false;
+        }
+        for (int i = 0; i < magic.length; i++) {
+            if ((data[offset + i] & 0xFF) != magic[i]) {
+                return false;
+            }
+        }
+        return true;
     }
 }
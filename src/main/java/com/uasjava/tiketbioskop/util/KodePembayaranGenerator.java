@@ -0,0 +1,85 @@
+package com.uasjava.tiketbioskop.util;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.time.Instant;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Generator kode pembayaran yang unik tanpa cek ke database.
+ *
+ * Kode disusun dari 41 bit milidetik sejak 2024-01-01, 10 bit node id, dan 12 bit sequence per milidetik,
+ * lalu di-encode Crockford base32 dengan lebar tetap 13 karakter dan prefix TXN.
+ * Karena lebar tetap dan alfabet base32 terurut, kode yang dibuat belakangan selalu lebih besar
+ * sehingga insert ke index kode_pembayaran selalu di ujung.
+ * Setiap instance aplikasi wajib memakai {@code app.node-id} yang berbeda (0-1023).
+ */
+@Component
+@Slf4j
+public class KodePembayaranGenerator {
+
+    public static final String PREFIX = "TXN";
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final char[] ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ".toCharArray();
+    private static final int ENCODED_LENGTH = 13;
+
+    private final long nodeId;
+    private long lastMillis = -1;
+    private long sequence;
+
+    public KodePembayaranGenerator(@Value("${app.node-id:-1}") int nodeId) {
+        if (nodeId < 0) {
+            nodeId = nodeIdFromHostname();
+            log.warn("app.node-id tidak diset, memakai node id {} dari hostname", nodeId);
+        }
+        if (nodeId > MAX_NODE) {
+            throw new IllegalArgumentException("app.node-id harus di antara 0 dan " + MAX_NODE);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public String generate() {
+        return PREFIX + encode(nextId());
+    }
+
+    synchronized long nextId() {
+        long millis = System.currentTimeMillis() - EPOCH_MILLIS;
+        if (millis > lastMillis) {
+            lastMillis = millis;
+            sequence = 0;
+        } else {
+            // Milidetik sama atau jam mundur: lanjutkan sequence, jika habis pinjam milidetik berikutnya
+            sequence = (sequence + 1) & SEQUENCE_MASK;
+            if (sequence == 0) {
+                lastMillis++;
+            }
+        }
+        return (lastMillis << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[ENCODED_LENGTH];
+        for (int i = ENCODED_LENGTH - 1; i >= 0; i--) {
+            chars[i] = ALPHABET[(int) (value & 31)];
+            value >>>= 5;
+        }
+        return new String(chars);
+    }
+
+    private static int nodeIdFromHostname() {
+        try {
+            return (InetAddress.getLocalHost().getHostName().hashCode() & Integer.MAX_VALUE) % (int) (MAX_NODE + 1);
+        } catch (UnknownHostException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.uasjava.tiketbioskop.util;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token bucket sederhana untuk membatasi laju (misalnya email per detik).
+ *
+ * Token terisi sebanyak {@code ratePerSecond} setiap detik sampai {@code capacity}.
+ * {@link #acquire(int)} menunggu sampai token yang diminta tersedia.
+ */
+public class TokenBucket {
+
+    private final double ratePerNano;
+    private final double capacity;
+
+    private double tokens;
+    private long lastRefill;
+
+    public TokenBucket(double ratePerSecond, double capacity) {
+        if (ratePerSecond <= 0 || capacity <= 0) {
+            throw new IllegalArgumentException("Laju dan kapasitas token bucket harus lebih dari 0");
+        }
+        this.ratePerNano = ratePerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.capacity = capacity;
+        this.tokens = capacity;
+        this.lastRefill = System.nanoTime();
+    }
+
+    /**
+     * Ambil token, menunggu jika belum cukup. Permintaan di atas kapasitas dibatasi ke kapasitas.
+     */
+    public void acquire(int permits) throws InterruptedException {
+        double needed = Math.min(permits, capacity);
+        while (true) {
+            long waitNanos;
+            synchronized (this) {
+                refill();
+                if (tokens >= needed) {
+                    tokens -= needed;
+                    return;
+                }
+                waitNanos = (long) Math.ceil((needed - tokens) / ratePerNano);
+            }
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefill) * ratePerNano);
+        lastRefill = now;
+    }
+}
@@ -0,0 +1,137 @@
+package com.uasjava.tiketbioskop.benchmark;
+
+import java.awt.Color;
+import java.awt.GradientPaint;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.imageio.ImageIO;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.uasjava.tiketbioskop.util.ImageUtils;
+
+/**
+ * Perbandingan penyimpanan poster lama (selalu deflate) dengan penyimpanan sesuai format
+ * (JPEG/PNG/GIF/WebP disimpan apa adanya). Throughput diukur per satu putaran seluruh korpus,
+ * total ukuran hasil dicetak saat setup.
+ *
+ * Korpus poster asli diambil dari folder {@code -Dposter.corpus=<folder>}. Tanpa properti itu
+ * dipakai poster sintetis JPEG dan PNG. Contoh:
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dposter.corpus=uploads/posters
+ *   -Dexec.mainClass=com.uasjava.tiketbioskop.benchmark.PosterCompressionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PosterCompressionBenchmark {
+
+    @Param({ "legacy", "content-aware" })
+    private String mode;
+
+    private List<byte[]> corpus;
+    private List<byte[]> stored;
+
+    @Setup
+    public void setUp() throws IOException {
+        corpus = loadCorpus();
+        stored = new ArrayList<>(corpus.size());
+        long original = 0;
+        long total = 0;
+        for (byte[] poster : corpus) {
+            byte[] data = compress(poster);
+            stored.add(data);
+            original += poster.length;
+            total += data.length;
+        }
+        System.out.printf("%n[%s] %d poster, asli %d byte, tersimpan %d byte (%.2f%%)%n",
+                mode, corpus.size(), original, total, total * 100.0 / original);
+    }
+
+    @Benchmark
+    public void compress(Blackhole blackhole) {
+        for (byte[] poster : corpus) {
+            blackhole.consume(compress(poster));
+        }
+    }
+
+    @Benchmark
+    public void decompress(Blackhole blackhole) {
+        for (byte[] data : stored) {
+            blackhole.consume(ImageUtils.decompressImage(data));
+        }
+    }
+
+    private byte[] compress(byte[] poster) {
+        return mode.equals("legacy") ? ImageUtils.deflate(poster) : ImageUtils.compressImage(poster);
+    }
+
+    private static List<byte[]> loadCorpus() throws IOException {
+        String folder = System.getProperty("poster.corpus");
+        if (folder == null || folder.isBlank()) {
+            return syntheticCorpus();
+        }
+        List<byte[]> result = new ArrayList<>();
+        try (Stream<Path> files = Files.list(Paths.get(folder))) {
+            for (Path file : files.filter(Files::isRegularFile).sorted().toList()) {
+                result.add(Files.readAllBytes(file));
+            }
+        }
+        if (result.isEmpty()) {
+            throw new IllegalStateException("Folder korpus poster kosong: " + folder);
+        }
+        return result;
+    }
+
+    private static List<byte[]> syntheticCorpus() throws IOException {
+        List<byte[]> result = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            BufferedImage image = new BufferedImage(1000, 1500, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = image.createGraphics();
+            graphics.setPaint(new GradientPaint(0, 0, new Color(20 * i, 40, 120), 1000, 1500, new Color(240, 200 - 10 * i, 60)));
+            graphics.fillRect(0, 0, 1000, 1500);
+            graphics.setColor(Color.WHITE);
+            for (int line = 0; line < 40; line++) {
+                graphics.drawString("Poster film " + i + " baris " + line, 40 + line * 3, 60 + line * 35);
+            }
+            graphics.dispose();
+
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            ImageIO.write(image, i % 2 == 0 ? "jpeg" : "png", out);
+            result.add(out.toByteArray());
+        }
+        return result;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PosterCompressionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,99 @@
+package com.uasjava.tiketbioskop.benchmark;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.uasjava.tiketbioskop.model.Bioskop;
+import com.uasjava.tiketbioskop.model.Film;
+import com.uasjava.tiketbioskop.model.Jadwal;
+import com.uasjava.tiketbioskop.model.Kursi;
+import com.uasjava.tiketbioskop.model.Tiket;
+import com.uasjava.tiketbioskop.model.Transaksi;
+import com.uasjava.tiketbioskop.service.helper.TiketPdfBuilderRenderer;
+import com.uasjava.tiketbioskop.service.helper.TiketPdfTemplateRenderer;
+
+/**
+ * Perbandingan render PDF tiket (render per detik) antara mode builder dan mode template.
+ *
+ * Jalankan dengan: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.uasjava.tiketbioskop.benchmark.TiketPdfRenderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TiketPdfRenderBenchmark {
+
+    @Param({ "1", "4", "10" })
+    private int jumlahKursi;
+
+    private TiketPdfBuilderRenderer builderRenderer;
+    private TiketPdfTemplateRenderer templateRenderer;
+    private Transaksi transaksi;
+    private List<Tiket> tiketList;
+
+    @Setup
+    public void setUp() throws Exception {
+        builderRenderer = new TiketPdfBuilderRenderer();
+        templateRenderer = new TiketPdfTemplateRenderer();
+
+        Bioskop bioskop = Bioskop.builder().id(1L).nama("Bioskop Merdeka").lokasi("Jl. Sudirman No. 1, Jakarta").build();
+        Film film = Film.builder().id(1L).judul("Perjalanan Panjang ke Selatan").genre("Drama").durasi(128).build();
+        Jadwal jadwal = Jadwal.builder().id(1L).film(film).bioskop(bioskop)
+                .tanggal(LocalDate.now().plusDays(1)).jam(LocalTime.of(19, 30)).build();
+
+        tiketList = new ArrayList<>();
+        for (int i = 1; i <= jumlahKursi; i++) {
+            Kursi kursi = Kursi.builder().id((long) i).bioskop(bioskop).nomor("A" + i)
+                    .tipe(i % 3 == 0 ? Kursi.TipeKursi.VIP : Kursi.TipeKursi.REGULER).build();
+            tiketList.add(Tiket.builder().id((long) i).kursi(kursi).harga(50000).build());
+        }
+
+        transaksi = Transaksi.builder()
+                .id(1L)
+                .jadwal(jadwal)
+                .totalHarga(50000 * jumlahKursi)
+                .status(Transaksi.StatusTransaksi.LUNAS)
+                .metodePembayaran("E_WALLET")
+                .createdAt(LocalDateTime.now())
+                .kodePembayaran("TXN0ABCDEFGHJK")
+                .build();
+    }
+
+    @Benchmark
+    public byte[] builder() throws Exception {
+        return builderRenderer.render(transaksi, tiketList);
+    }
+
+    @Benchmark
+    public byte[] template() throws Exception {
+        return templateRenderer.render(transaksi, tiketList);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TiketPdfRenderBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
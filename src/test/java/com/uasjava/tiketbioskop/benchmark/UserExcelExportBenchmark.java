@@ -0,0 +1,85 @@
+package com.uasjava.tiketbioskop.benchmark;
+
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.uasjava.tiketbioskop.repository.UserRepository.UserExportRow;
+import com.uasjava.tiketbioskop.service.helper.UserExcelWriter;
+
+/**
+ * Waktu export Excel streaming untuk 1 juta user. Data user dibuat per halaman saat dibaca
+ * sehingga benchmark juga menunjukkan bahwa heap tidak perlu menampung seluruh data.
+ *
+ * Jalankan dengan heap kecil untuk memastikan memori tetap datar, misalnya:
+ * mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.uasjava.tiketbioskop.benchmark.UserExcelExportBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(value = 1, jvmArgsAppend = "-Xmx256m")
+public class UserExcelExportBenchmark {
+
+    @Param({ "1000000" })
+    private int jumlahUser;
+
+    @Param({ "1000" })
+    private int pageSize;
+
+    private UserExcelWriter writer;
+
+    @Setup
+    public void setUp() {
+        writer = new UserExcelWriter(200);
+    }
+
+    @Benchmark
+    public long export() throws Exception {
+        try (OutputStream out = OutputStream.nullOutputStream()) {
+            return writer.write(out, this::halaman);
+        }
+    }
+
+    private List<UserRow> halaman(int afterId) {
+        List<UserRow> page = new ArrayList<>(pageSize);
+        LocalDateTime now = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int id = afterId + 1; id <= Math.min(afterId + pageSize, jumlahUser); id++) {
+            page.add(new UserRow(id, "user_" + id, "user" + id + "@tiketbioskop.com", "0812" + (10_000_000 + id % 90_000_000),
+                    LocalDate.of(1990 + id % 20, 1 + id % 12, 1 + id % 28), id % 10 != 0,
+                    now.minusMinutes(id), id % 3 == 0 ? null : now.minusSeconds(id)));
+        }
+        return page;
+    }
+
+    private record UserRow(Integer getId, String getUsername, String getEmail, String getNomor,
+                           LocalDate getTanggalLahir, Boolean getStatus, LocalDateTime getCreatedAt,
+                           LocalDateTime getLastLogin) implements UserExportRow {
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(UserExcelExportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
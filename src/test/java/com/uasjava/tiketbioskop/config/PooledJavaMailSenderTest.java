@@ -0,0 +1,72 @@
+package com.uasjava.tiketbioskop.config;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.SimpleMailMessage;
+
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test pengiriman batch melalui pool koneksi SMTP terhadap server SMTP lokal (GreenMail)
+ */
+class PooledJavaMailSenderTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private SimpleMeterRegistry meterRegistry;
+    private PooledJavaMailSender mailSender;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        mailSender = new PooledJavaMailSender(meterRegistry, 2, 60_000);
+        mailSender.setHost("localhost");
+        mailSender.setPort(ServerSetupTest.SMTP.getPort());
+    }
+
+    @AfterEach
+    void tearDown() {
+        mailSender.close();
+    }
+
+    private SimpleMailMessage[] buatPesan(int jumlah) {
+        SimpleMailMessage[] messages = new SimpleMailMessage[jumlah];
+        for (int i = 0; i < jumlah; i++) {
+            SimpleMailMessage message = new SimpleMailMessage();
+            message.setFrom("noreply@tiketbioskop.com");
+            message.setTo("user" + i + "@tiketbioskop.com");
+            message.setSubject("Tes " + i);
+            message.setText("Isi " + i);
+            messages[i] = message;
+        }
+        return messages;
+    }
+
+    @Test
+    void batchDikirimMelaluiSatuKoneksi() {
+        mailSender.send(buatPesan(5));
+
+        assertEquals(5, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.get("tiketbioskop.mail.connection.opened").counter().count());
+        assertEquals(5.0, meterRegistry.get("tiketbioskop.mail.sent").counter().count());
+        assertEquals(5.0, meterRegistry.get("tiketbioskop.mail.batch.size").summary().totalAmount());
+    }
+
+    @Test
+    void koneksiDipakaiUlangAntarBatch() {
+        mailSender.send(buatPesan(3));
+        mailSender.send(buatPesan(3));
+
+        assertEquals(6, greenMail.getReceivedMessages().length);
+        assertEquals(1.0, meterRegistry.get("tiketbioskop.mail.connection.opened").counter().count());
+        assertEquals(2, meterRegistry.get("tiketbioskop.mail.batch.duration").timer().count());
+    }
+}
@@ -0,0 +1,73 @@
+package com.uasjava.tiketbioskop.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uasjava.tiketbioskop.model.EmailOutbox;
+import com.uasjava.tiketbioskop.repository.EmailOutboxRepository;
+
+/**
+ * Test pengambilan ulang email yang lease-nya habis
+ */
+class EmailOutboxServiceTest {
+
+    private EmailOutboxRepository repository;
+    private EmailOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(EmailOutboxRepository.class);
+        service = new EmailOutboxService(repository, new ObjectMapper(), 120, 30, 3600, 3);
+    }
+
+    private static EmailOutbox outbox(long id, EmailOutbox.StatusOutbox status, int attempts) {
+        return EmailOutbox.builder()
+                .id(id)
+                .recipient("user" + id + "@example.com")
+                .subject("Subjek")
+                .templateName("email/payment-success")
+                .status(status)
+                .attempts(attempts)
+                .nextAttemptAt(LocalDateTime.now().minusMinutes(10))
+                .lockedUntil(status == EmailOutbox.StatusOutbox.SENDING ? LocalDateTime.now().minusMinutes(1) : null)
+                .build();
+    }
+
+    @Test
+    void leaseHabisDihitungSebagaiPercobaan() {
+        EmailOutbox baru = outbox(1, EmailOutbox.StatusOutbox.PENDING, 0);
+        EmailOutbox macet = outbox(2, EmailOutbox.StatusOutbox.SENDING, 1);
+        when(repository.lockDueIds(any(), eq(10))).thenReturn(List.of(1L, 2L));
+        when(repository.findAllById(List.of(1L, 2L))).thenReturn(List.of(baru, macet));
+
+        List<EmailOutbox> claimed = service.claimBatch(10);
+
+        assertEquals(List.of(baru, macet), claimed);
+        assertEquals(0, baru.getAttempts());
+        assertEquals(2, macet.getAttempts());
+        assertEquals(EmailOutbox.StatusOutbox.SENDING, macet.getStatus());
+        assertTrue(macet.getLockedUntil().isAfter(LocalDateTime.now()));
+    }
+
+    @Test
+    void leaseHabisPadaPercobaanTerakhirMenjadiFailed() {
+        EmailOutbox macet = outbox(2, EmailOutbox.StatusOutbox.SENDING, 2);
+        when(repository.lockDueIds(any(), eq(10))).thenReturn(List.of(2L));
+        when(repository.findAllById(List.of(2L))).thenReturn(List.of(macet));
+
+        List<EmailOutbox> claimed = service.claimBatch(10);
+
+        assertTrue(claimed.isEmpty());
+        assertEquals(3, macet.getAttempts());
+        assertEquals(EmailOutbox.StatusOutbox.FAILED, macet.getStatus());
+        assertNull(macet.getLockedUntil());
+    }
+}
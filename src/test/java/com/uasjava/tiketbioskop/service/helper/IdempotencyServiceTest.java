@@ -0,0 +1,90 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.uasjava.tiketbioskop.repository.IdempotencyRecordRepository;
+
+/**
+ * Test replay, key yang dipakai ulang dengan isi berbeda, dan kegagalan sementara
+ */
+class IdempotencyServiceTest {
+
+    private static final TypeReference<String> BODY = new TypeReference<>() {};
+
+    private IdempotencyRecordRepository repository;
+    private IdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(IdempotencyRecordRepository.class);
+        AuthHelperService authHelperService = mock(AuthHelperService.class);
+        when(authHelperService.getCurrentUsername()).thenReturn("user");
+        service = new IdempotencyService(repository, authHelperService, new ObjectMapper(), 1440, 100, 1000);
+    }
+
+    @Test
+    void requestUlangMendapatResponsePertama() {
+        AtomicInteger dijalankan = new AtomicInteger();
+
+        ResponseEntity<String> pertama = service.execute("key-1", "checkout", Map.of("jadwalId", 1), BODY,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("transaksi-" + dijalankan.incrementAndGet()));
+        ResponseEntity<String> kedua = service.execute("key-1", "checkout", Map.of("jadwalId", 1), BODY,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("transaksi-" + dijalankan.incrementAndGet()));
+
+        assertEquals(1, dijalankan.get());
+        assertEquals(HttpStatus.CREATED, kedua.getStatusCode());
+        assertEquals(pertama.getBody(), kedua.getBody());
+        assertEquals("true", kedua.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void keySamaDenganIsiBerbedaDitolak() {
+        service.execute("key-1", "checkout", Map.of("jadwalId", 1), BODY,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("transaksi-1"));
+
+        ResponseStatusException e = assertThrows(ResponseStatusException.class,
+                () -> service.execute("key-1", "checkout", Map.of("jadwalId", 2), BODY,
+                        () -> ResponseEntity.status(HttpStatus.CREATED).body("transaksi-2")));
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, e.getStatusCode());
+    }
+
+    @Test
+    void kegagalanSementaraTidakDisimpan() {
+        ResponseEntity<String> sibuk = service.execute("key-1", "checkout", Map.of("jadwalId", 1), BODY,
+                () -> ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("sibuk"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, sibuk.getStatusCode());
+        verify(repository, never()).save(any());
+
+        // Retry dengan key yang sama diproses ulang
+        ResponseEntity<String> retry = service.execute("key-1", "checkout", Map.of("jadwalId", 1), BODY,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body("transaksi-1"));
+        assertEquals(HttpStatus.CREATED, retry.getStatusCode());
+        assertNull(retry.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER));
+        verify(repository, times(1)).save(any());
+    }
+
+    @Test
+    void hanyaResponseYangPastiBerulangYangDisimpan() {
+        assertTrue(IdempotencyService.isStorable(201));
+        assertTrue(IdempotencyService.isStorable(400));
+        assertTrue(IdempotencyService.isStorable(404));
+        assertFalse(IdempotencyService.isStorable(409));
+        assertFalse(IdempotencyService.isStorable(429));
+        assertFalse(IdempotencyService.isStorable(500));
+        assertFalse(IdempotencyService.isStorable(503));
+    }
+}
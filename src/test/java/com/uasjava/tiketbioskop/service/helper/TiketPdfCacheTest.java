@@ -0,0 +1,66 @@
+package com.uasjava.tiketbioskop.service.helper;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test batas cache PDF tiket di disk dan invalidasi
+ */
+class TiketPdfCacheTest {
+
+    @TempDir
+    Path directory;
+
+    private TiketPdfCache cache(long maxDiskBytes) throws IOException {
+        return new TiketPdfCache(new SimpleMeterRegistry(), directory.toString(), 1024, maxDiskBytes, 24);
+    }
+
+    private void setUmur(Long transaksiId, String hash, Duration umur) throws IOException {
+        Files.setLastModifiedTime(directory.resolve(transaksiId + "-" + hash + ".pdf"),
+                FileTime.from(Instant.now().minus(umur)));
+    }
+
+    @Test
+    void fileLamaDanFileMelewatiBatasUkuranDihapus() throws IOException {
+        TiketPdfCache cache = cache(250);
+        cache.put(1L, "a", new byte[100]);
+        cache.put(2L, "b", new byte[100]);
+        cache.put(3L, "c", new byte[100]);
+        cache.put(4L, "d", new byte[100]);
+        setUmur(1L, "a", Duration.ofHours(25));
+        setUmur(2L, "b", Duration.ofHours(3));
+        setUmur(3L, "c", Duration.ofHours(2));
+        setUmur(4L, "d", Duration.ofHours(1));
+
+        cache.bersihkanDisk();
+
+        // 1 melewati TTL, 2 paling lama tidak dipakai sehingga dihapus agar total di bawah 250 byte
+        assertFalse(Files.exists(directory.resolve("1-a.pdf")));
+        assertFalse(Files.exists(directory.resolve("2-b.pdf")));
+        assertTrue(Files.exists(directory.resolve("3-c.pdf")));
+        assertTrue(Files.exists(directory.resolve("4-d.pdf")));
+    }
+
+    @Test
+    void renderSetelahInvalidateTidakDisimpan() throws IOException {
+        TiketPdfCache cache = cache(1_000_000);
+        cache.put(1L, "a", new byte[10]);
+
+        cache.invalidate(1L);
+        cache.put(1L, "a", new byte[10]);
+
+        assertFalse(Files.exists(directory.resolve("1-a.pdf")));
+        assertNull(cache.get(1L, "a"));
+    }
+}
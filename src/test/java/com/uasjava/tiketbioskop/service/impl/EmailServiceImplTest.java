@@ -0,0 +1,49 @@
+package com.uasjava.tiketbioskop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.thymeleaf.TemplateEngine;
+
+import com.uasjava.tiketbioskop.service.EmailService;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.AddressException;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Test alamat tidak valid pada pengiriman batch dicatat sebagai gagal
+ */
+class EmailServiceImplTest {
+
+    private JavaMailSender javaMailSender;
+    private EmailServiceImpl emailService;
+
+    @BeforeEach
+    void setUp() {
+        javaMailSender = mock(JavaMailSender.class);
+        when(javaMailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage((Session) null));
+        emailService = new EmailServiceImpl(javaMailSender, mock(TemplateEngine.class));
+        ReflectionTestUtils.setField(emailService, "fromEmail", "noreply@tiketbioskop.com");
+    }
+
+    @Test
+    void alamatTidakValidDikembalikanSebagaiGagal() {
+        Map<Integer, Exception> failures = emailService.sendHtmlEmailBatch(List.of(
+                new EmailService.HtmlEmail("user@tiketbioskop.com", "Promo", "<p>Halo</p>"),
+                new EmailService.HtmlEmail("bukan-email", "Promo", "<p>Halo</p>")));
+
+        assertEquals(1, failures.size());
+        assertInstanceOf(AddressException.class, failures.get(1));
+        // Hanya alamat yang valid yang dikirim
+        verify(javaMailSender).send(any(MimeMessage.class));
+    }
+}
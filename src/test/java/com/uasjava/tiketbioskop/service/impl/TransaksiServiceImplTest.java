@@ -0,0 +1,141 @@
+package com.uasjava.tiketbioskop.service.impl;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.uasjava.tiketbioskop.model.Bioskop;
+import com.uasjava.tiketbioskop.model.Film;
+import com.uasjava.tiketbioskop.model.Jadwal;
+import com.uasjava.tiketbioskop.model.Kursi;
+import com.uasjava.tiketbioskop.model.KursiReservasi;
+import com.uasjava.tiketbioskop.model.Tiket;
+import com.uasjava.tiketbioskop.model.Transaksi;
+import com.uasjava.tiketbioskop.model.Users;
+import com.uasjava.tiketbioskop.repository.JadwalRepository;
+import com.uasjava.tiketbioskop.repository.KursiRepository;
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
+import com.uasjava.tiketbioskop.repository.TiketRepository;
+import com.uasjava.tiketbioskop.repository.TransaksiRepository;
+import com.uasjava.tiketbioskop.scheduler.TransaksiExpiryWheel;
+import com.uasjava.tiketbioskop.service.EmailOutboxService;
+import com.uasjava.tiketbioskop.service.TiketPdfService;
+import com.uasjava.tiketbioskop.service.helper.AuthHelperService;
+import com.uasjava.tiketbioskop.service.helper.SseBroadcaster;
+import com.uasjava.tiketbioskop.service.inventory.SeatInventoryService;
+import com.uasjava.tiketbioskop.util.KodePembayaranGenerator;
+
+/**
+ * Test konfirmasi pembayaran yang balapan dengan pembatalan transaksi kadaluarsa
+ */
+class TransaksiServiceImplTest {
+
+    private static final String KODE = "PAY-1";
+
+    private TransaksiRepository transaksiRepository;
+    private KursiReservasiRepository kursiReservasiRepository;
+    private EmailOutboxService emailOutboxService;
+    private SeatInventoryService seatInventoryService;
+    private TransaksiServiceImpl service;
+    private Transaksi transaksi;
+
+    @BeforeEach
+    void setUp() {
+        transaksiRepository = mock(TransaksiRepository.class);
+        kursiReservasiRepository = mock(KursiReservasiRepository.class);
+        emailOutboxService = mock(EmailOutboxService.class);
+        seatInventoryService = mock(SeatInventoryService.class);
+        service = new TransaksiServiceImpl(mock(JadwalRepository.class), mock(KursiRepository.class),
+                transaksiRepository, mock(TiketRepository.class), kursiReservasiRepository,
+                mock(AuthHelperService.class), emailOutboxService, seatInventoryService,
+                mock(TransaksiExpiryWheel.class), mock(SseBroadcaster.class), mock(KodePembayaranGenerator.class),
+                mock(TiketPdfService.class));
+
+        Jadwal jadwal = Jadwal.builder()
+                .id(1L)
+                .film(Film.builder().judul("Film").genre("Drama").durasi(120).build())
+                .bioskop(Bioskop.builder().nama("Bioskop").lokasi("Kota").build())
+                .tanggal(LocalDate.now())
+                .jam(LocalTime.NOON)
+                .build();
+        transaksi = Transaksi.builder()
+                .id(10L)
+                .users(Users.builder().username("user").email("user@example.com").build())
+                .jadwal(jadwal)
+                .kodePembayaran(KODE)
+                .metodePembayaran("TRANSFER")
+                .status(Transaksi.StatusTransaksi.PENDING)
+                .expiredAt(LocalDateTime.now().plusMinutes(5))
+                .createdAt(LocalDateTime.now())
+                .build();
+        for (long kursiId = 1; kursiId <= 2; kursiId++) {
+            transaksi.getTiketList().add(Tiket.builder()
+                    .transaksi(transaksi)
+                    .kursi(Kursi.builder().id(kursiId).nomor("A" + kursiId).tipe(Kursi.TipeKursi.REGULER).build())
+                    .build());
+        }
+        when(transaksiRepository.findByKodePembayaran(KODE)).thenReturn(Optional.of(transaksi));
+    }
+
+    @Test
+    void konfirmasiGagalJikaPembatalanKadaluarsaCommitLebihDulu() {
+        // Transaksi dibaca PENDING, tetapi pembatalan kadaluarsa sudah commit sebelum update status
+        when(transaksiRepository.updateStatusIfCurrent(10L,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.LUNAS)).thenReturn(0);
+
+        assertFalse(service.konfirmasiPembayaran(KODE));
+
+        verify(kursiReservasiRepository, never()).updateStatusByTransaksiId(anyLong(), any());
+        verify(transaksiRepository, never()).save(any());
+        verify(seatInventoryService, never()).markSold(anyLong());
+        verify(emailOutboxService, never()).enqueue(anyString(), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    void konfirmasiGagalJikaReservasiKursiSudahTerhapus() {
+        when(transaksiRepository.updateStatusIfCurrent(10L,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.LUNAS)).thenReturn(1);
+        when(kursiReservasiRepository.updateStatusByTransaksiId(10L, KursiReservasi.StatusReservasi.TERJUAL))
+                .thenReturn(1);
+
+        assertFalse(service.konfirmasiPembayaran(KODE));
+
+        verify(seatInventoryService, never()).markSold(anyLong());
+        verify(emailOutboxService, never()).enqueue(anyString(), anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    void konfirmasiBerhasilJikaMasihPending() {
+        when(transaksiRepository.updateStatusIfCurrent(10L,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.LUNAS)).thenReturn(1);
+        when(kursiReservasiRepository.updateStatusByTransaksiId(10L, KursiReservasi.StatusReservasi.TERJUAL))
+                .thenReturn(2);
+
+        assertTrue(service.konfirmasiPembayaran(KODE));
+
+        assertEquals(Transaksi.StatusTransaksi.LUNAS, transaksi.getStatus());
+        verify(seatInventoryService).markSold(10L);
+        verify(emailOutboxService).enqueue(eq("user@example.com"), anyString(), eq("email/payment-success"), anyMap());
+    }
+
+    @Test
+    void kadaluarsaTidakMelepasKursiJikaSudahDibatalkanProsesLain() {
+        transaksi.setExpiredAt(LocalDateTime.now().minusMinutes(1));
+        when(transaksiRepository.updateStatusIfCurrent(10L,
+                Transaksi.StatusTransaksi.PENDING, Transaksi.StatusTransaksi.DIBATALKAN)).thenReturn(0);
+
+        assertFalse(service.konfirmasiPembayaran(KODE));
+
+        verify(kursiReservasiRepository, never()).deleteByTransaksiIdIn(any());
+        verify(seatInventoryService, never()).releaseTransaksi(anyLong());
+    }
+}
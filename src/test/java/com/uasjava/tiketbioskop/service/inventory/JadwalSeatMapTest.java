@@ -0,0 +1,68 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.uasjava.tiketbioskop.model.Kursi;
+
+/**
+ * Test bitmap peta kursi per jadwal
+ */
+class JadwalSeatMapTest {
+
+    private JadwalSeatMap buatSeatMap(int jumlahKursi) {
+        List<Kursi> kursiList = new ArrayList<>();
+        // Sengaja tidak terurut untuk memastikan ordinal mengikuti urutan id
+        for (long id = jumlahKursi; id >= 1; id--) {
+            kursiList.add(Kursi.builder()
+                    .id(id * 10)
+                    .nomor("K" + id)
+                    .tipe(id % 2 == 0 ? Kursi.TipeKursi.VIP : Kursi.TipeKursi.REGULER)
+                    .build());
+        }
+        return new JadwalSeatMap(1L, 1L, LocalDate.now(), kursiList);
+    }
+
+    @Test
+    void ordinalMengikutiUrutanIdKursi() {
+        JadwalSeatMap seatMap = buatSeatMap(5);
+
+        assertEquals(0, seatMap.ordinalOf(10L));
+        assertEquals(4, seatMap.ordinalOf(50L));
+        assertEquals(-1, seatMap.ordinalOf(15L));
+        assertEquals(-1, seatMap.ordinalOf(null));
+        assertEquals("K3", seatMap.nomorAt(2));
+        assertEquals(Kursi.TipeKursi.VIP, seatMap.tipeAt(1));
+    }
+
+    @Test
+    void holdReleaseDanSoldMengubahStatus() {
+        JadwalSeatMap seatMap = buatSeatMap(130);
+        int[] ordinals = { 0, 63, 64, 129 };
+
+        seatMap.hold(ordinals);
+        for (int ordinal : ordinals) {
+            assertTrue(seatMap.isHeld(ordinal));
+            assertFalse(seatMap.isFree(ordinal));
+        }
+        assertTrue(seatMap.isFree(1));
+        assertEquals(126, seatMap.countFree());
+
+        seatMap.release(new int[] { 63 });
+        assertTrue(seatMap.isFree(63));
+
+        seatMap.markSold(new int[] { 64 });
+        assertTrue(seatMap.isSold(64));
+        assertFalse(seatMap.isHeld(64));
+
+        // Kursi terjual tidak ikut terlepas
+        seatMap.release(new int[] { 64 });
+        assertTrue(seatMap.isSold(64));
+        assertEquals(127, seatMap.countFree());
+    }
+}
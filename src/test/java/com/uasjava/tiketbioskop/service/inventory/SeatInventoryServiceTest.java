@@ -0,0 +1,96 @@
+package com.uasjava.tiketbioskop.service.inventory;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.uasjava.tiketbioskop.model.Bioskop;
+import com.uasjava.tiketbioskop.model.Jadwal;
+import com.uasjava.tiketbioskop.model.Kursi;
+import com.uasjava.tiketbioskop.model.KursiReservasi;
+import com.uasjava.tiketbioskop.repository.KursiRepository;
+import com.uasjava.tiketbioskop.repository.KursiReservasiRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Test hold kursi yang dibuat sebelum peta kursi jadwal dimuat ulang
+ */
+class SeatInventoryServiceTest {
+
+    private KursiRepository kursiRepository;
+    private KursiReservasiRepository kursiReservasiRepository;
+    private SeatInventoryService service;
+    private Jadwal jadwal;
+
+    @BeforeEach
+    void setUp() {
+        kursiRepository = mock(KursiRepository.class);
+        kursiReservasiRepository = mock(KursiReservasiRepository.class);
+        when(kursiReservasiRepository.findKursiTerpakaiByJadwalId(1L)).thenReturn(List.of());
+        service = new SeatInventoryService(kursiRepository, kursiReservasiRepository,
+                new JadwalLockManager(new SimpleMeterRegistry(), 4, 1000), mock(SeatUpdateBroadcaster.class));
+
+        jadwal = Jadwal.builder()
+                .id(1L)
+                .bioskop(Bioskop.builder().id(1L).build())
+                .tanggal(LocalDate.now())
+                .build();
+    }
+
+    private static List<Kursi> kursi(long... ids) {
+        List<Kursi> result = new ArrayList<>();
+        for (long id : ids) {
+            result.add(Kursi.builder().id(id).nomor("K" + id).tipe(Kursi.TipeKursi.REGULER).build());
+        }
+        return result;
+    }
+
+    @Test
+    void holdLamaTidakMengubahPetaYangDimuatUlang() {
+        when(kursiRepository.findByBioskopIdOrderByIdAsc(1L)).thenReturn(kursi(10, 20, 30));
+        SeatHold holdLama = service.hold(jadwal, List.of(20L));
+
+        // Kursi baru menggeser ordinal: kursi 20 sekarang ordinal 2
+        when(kursiRepository.findByBioskopIdOrderByIdAsc(1L)).thenReturn(kursi(5, 10, 20, 30));
+        service.evictJadwal(1L);
+        SeatHold holdBaru = service.hold(jadwal, List.of(10L));
+        JadwalSeatMap petaBaru = service.getSeatMap(jadwal);
+
+        service.release(holdLama);
+        assertTrue(petaBaru.isHeld(petaBaru.ordinalOf(10L)), "hold transaksi lain tidak boleh terlepas");
+
+        service.bind(holdLama, 100L);
+        service.markSold(100L);
+        assertNotSame(petaBaru, service.getSeatMap(jadwal), "peta dimuat ulang dari database");
+        assertTrue(service.getSeatMap(jadwal).isFree(service.getSeatMap(jadwal).ordinalOf(10L)));
+
+        assertSame(petaBaru, holdBaru.getSeatMap());
+    }
+
+    @Test
+    void holdTransaksiPendingDariPetaYangDimuatUlangTetapBisaDilepas() {
+        KursiReservasiRepository.KursiTerpakai pending = mock(KursiReservasiRepository.KursiTerpakai.class);
+        when(pending.getKursiId()).thenReturn(20L);
+        when(pending.getTransaksiId()).thenReturn(7L);
+        when(pending.getStatus()).thenReturn(KursiReservasi.StatusReservasi.DITAHAN);
+        when(kursiReservasiRepository.findKursiTerpakaiByJadwalId(1L)).thenReturn(List.of(pending));
+        when(kursiRepository.findByBioskopIdOrderByIdAsc(1L)).thenReturn(kursi(10, 20, 30));
+
+        service.getSeatMap(jadwal);
+        service.evictJadwal(1L);
+        JadwalSeatMap petaBaru = service.getSeatMap(jadwal);
+        // Evict berikutnya untuk jadwal lain tidak boleh menyentuh hold peta ini
+        service.evictJadwal(2L);
+        assertTrue(petaBaru.isHeld(petaBaru.ordinalOf(20L)));
+
+        service.releaseTransaksi(7L);
+        assertTrue(petaBaru.isFree(petaBaru.ordinalOf(20L)), "hold transaksi dari database ikut dimuat ulang");
+    }
+}
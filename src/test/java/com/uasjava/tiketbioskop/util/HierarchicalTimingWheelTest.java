@@ -0,0 +1,61 @@
+package com.uasjava.tiketbioskop.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test timing wheel bertingkat untuk kadaluarsa transaksi
+ */
+class HierarchicalTimingWheelTest {
+
+    @Test
+    void itemKadaluarsaTepatPadaTickDeadline() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 3, 0);
+        // Level 0, level 1, level 2, dan di luar jangkauan wheel (8^3 tick)
+        long[] deadlines = { 3, 7, 9, 65, 100, 511, 600, 2000 };
+        for (long i = 0; i < deadlines.length; i++) {
+            wheel.schedule(i, deadlines[(int) i] * 1000);
+        }
+
+        List<Long> expiredOrder = new ArrayList<>();
+        for (long tick = 1; tick <= 2000; tick++) {
+            List<Long> expired = wheel.advance(tick * 1000);
+            for (Long item : expired) {
+                assertEquals(deadlines[item.intValue()], tick, "item " + item + " kadaluarsa di tick yang salah");
+            }
+            expiredOrder.addAll(expired);
+        }
+
+        assertEquals(List.of(0L, 1L, 2L, 3L, 4L, 5L, 6L, 7L), expiredOrder);
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void itemYangDibatalkanTidakKadaluarsa() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 0);
+        wheel.schedule(1L, 5000);
+        wheel.schedule(2L, 20000);
+
+        assertTrue(wheel.cancel(1L));
+        assertFalse(wheel.cancel(1L));
+        assertTrue(wheel.advance(10000).isEmpty());
+
+        // Penjadwalan ulang menggantikan deadline lama
+        wheel.schedule(2L, 30000);
+        assertTrue(wheel.advance(25000).isEmpty());
+        assertEquals(List.of(2L), wheel.advance(30000));
+    }
+
+    @Test
+    void deadlineLampauKadaluarsaPadaTickBerikutnya() {
+        HierarchicalTimingWheel<Long> wheel = new HierarchicalTimingWheel<>(1000, 8, 2, 10000);
+        wheel.schedule(1L, 2000);
+
+        assertTrue(wheel.advance(10500).isEmpty());
+        assertEquals(List.of(1L), wheel.advance(11000));
+    }
+}
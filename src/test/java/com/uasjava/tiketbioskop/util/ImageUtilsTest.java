@@ -0,0 +1,79 @@
+package com.uasjava.tiketbioskop.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test format penyimpanan poster di ImageUtils
+ */
+class ImageUtilsTest {
+
+    private static byte[] jpeg(int length) {
+        byte[] data = new byte[length];
+        for (int i = 0; i < length; i++) {
+            data[i] = (byte) (i * 31 + 7);
+        }
+        data[0] = (byte) 0xFF;
+        data[1] = (byte) 0xD8;
+        data[2] = (byte) 0xFF;
+        return data;
+    }
+
+    @Test
+    void formatTerkompresiDisimpanApaAdanya() {
+        byte[] poster = jpeg(10_000);
+
+        byte[] stored = ImageUtils.compressImage(poster);
+
+        assertEquals(poster.length + 4, stored.length);
+        assertEquals(ImageUtils.FLAG_RAW, stored[3]);
+        assertArrayEquals(poster, ImageUtils.decompressImage(stored));
+    }
+
+    @Test
+    void formatLainDiDeflate() {
+        byte[] bitmap = new byte[50_000];
+        Arrays.fill(bitmap, (byte) 'B');
+        bitmap[0] = 'B';
+        bitmap[1] = 'M';
+
+        byte[] stored = ImageUtils.compressImage(bitmap);
+
+        assertEquals(ImageUtils.FLAG_DEFLATE, stored[3]);
+        assertTrue(stored.length < bitmap.length / 10);
+        assertArrayEquals(bitmap, ImageUtils.decompressImage(stored));
+    }
+
+    @Test
+    void dataLamaTanpaHeaderTetapTerbaca() {
+        byte[] poster = jpeg(10_000);
+
+        byte[] legacy = ImageUtils.deflate(poster);
+
+        assertArrayEquals(poster, ImageUtils.decompressImage(legacy));
+    }
+
+    @Test
+    void dataRusakMelemparException() {
+        byte[] bukanZlib = "bukan data zlib".getBytes(StandardCharsets.UTF_8);
+        assertThrows(IllegalArgumentException.class, () -> ImageUtils.decompressImage(bukanZlib));
+
+        byte[] legacy = ImageUtils.deflate(new byte[20_000]);
+        byte[] terpotong = Arrays.copyOf(legacy, legacy.length / 2);
+        assertThrows(IllegalArgumentException.class, () -> ImageUtils.decompressImage(terpotong));
+    }
+
+    @Test
+    void contentTypeDariMagicBytes() {
+        assertEquals("image/jpeg", ImageUtils.detectContentType(jpeg(16)));
+        assertEquals("image/png", ImageUtils.detectContentType(
+                new byte[] { (byte) 0x89, 'P', 'N', 'G', 0x0D, 0x0A, 0x1A, 0x0A, 0 }));
+        assertEquals("image/webp", ImageUtils.detectContentType(
+                new byte[] { 'R', 'I', 'F', 'F', 0, 0, 0, 0, 'W', 'E', 'B', 'P' }));
+        assertEquals("application/octet-stream", ImageUtils.detectContentType(new byte[] { 1, 2 }));
+    }
+}
@@ -0,0 +1,46 @@
+package com.uasjava.tiketbioskop.util;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test generator kode pembayaran
+ */
+class KodePembayaranGeneratorTest {
+
+    @Test
+    void kodeUnikDanTerurut() {
+        KodePembayaranGenerator generator = new KodePembayaranGenerator(7);
+        Set<String> kodeSet = new HashSet<>();
+        String sebelumnya = "";
+
+        // Lebih dari 4096 kode per milidetik memaksa sequence habis dan meminjam milidetik berikutnya
+        for (int i = 0; i < 100_000; i++) {
+            String kode = generator.generate();
+            assertTrue(kode.matches("TXN[0-9A-HJKMNP-TV-Z]{13}"), kode);
+            assertTrue(kode.compareTo(sebelumnya) > 0, "kode harus terus naik");
+            assertTrue(kodeSet.add(kode));
+            sebelumnya = kode;
+        }
+    }
+
+    @Test
+    void nodeBerbedaMenghasilkanKodeBerbeda() {
+        KodePembayaranGenerator node1 = new KodePembayaranGenerator(1);
+        KodePembayaranGenerator node2 = new KodePembayaranGenerator(2);
+        Set<String> kodeSet = new HashSet<>();
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(kodeSet.add(node1.generate()));
+            assertTrue(kodeSet.add(node2.generate()));
+        }
+    }
+
+    @Test
+    void nodeIdDiLuarRentangDitolak() {
+        assertThrows(IllegalArgumentException.class, () -> new KodePembayaranGenerator(1024));
+    }
+}